@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.extensions;
+
+import com.powsybl.iidm.network.Country;
+import com.powsybl.iidm.network.Line;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.Substation;
+import com.powsybl.iidm.network.TopologyKind;
+import com.powsybl.iidm.network.VoltageLevel;
+import com.powsybl.iidm.network.impl.NetworkFactoryImpl;
+import org.openjdk.jmh.annotations.*;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading of the line position extension of a line, in the 1.0 version (an element per coordinate)
+ * and in the 1.1 version (all the coordinates in a single attribute).
+ *
+ * @author agent <agent at local>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LinePositionXmlBenchmark {
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    @Param({"10", "100", "1000"})
+    private int coordinatesPerLine;
+
+    @Param({LinePositionXmlSerializer.VERSION_1_0, LinePositionXmlSerializer.VERSION_1_1})
+    private String version;
+
+    private final LinePositionXmlSerializer<Line> serializer = new LinePositionXmlSerializer<>();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private Line line;
+
+    private LinePosition<Line> linePosition;
+
+    private byte[] xml;
+
+    private static Line createLine() {
+        Network network = new NetworkFactoryImpl().createNetwork("network", "test");
+        Substation substation = network.newSubstation().setId("S").setCountry(Country.FR).add();
+        VoltageLevel voltageLevel = substation.newVoltageLevel().setId("VL").setNominalV(400).setTopologyKind(TopologyKind.BUS_BREAKER).add();
+        voltageLevel.getBusBreakerView().newBus().setId("B1").add();
+        voltageLevel.getBusBreakerView().newBus().setId("B2").add();
+        return network.newLine().setId("L").setR(1).setX(1).setG1(0).setB1(0).setG2(0).setB2(0)
+                .setVoltageLevel1("VL").setBus1("B1").setVoltageLevel2("VL").setBus2("B2")
+                .add();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws XMLStreamException {
+        line = createLine();
+        Random random = new Random(42);
+        double[] coordinates = new double[coordinatesPerLine * 2];
+        for (int i = 0; i < coordinates.length; i += 2) {
+            coordinates[i] = 42 + random.nextDouble() * 8;
+            coordinates[i + 1] = -4 + random.nextDouble() * 12;
+        }
+        linePosition = new LinePosition<>(line, coordinates);
+        xml = write();
+    }
+
+    @Benchmark
+    public byte[] write() throws XMLStreamException {
+        out.reset();
+        String namespaceUri = serializer.getNamespaceUri(version);
+        XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out);
+        writer.setPrefix(serializer.getNamespacePrefix(), namespaceUri);
+        writer.writeStartElement(namespaceUri, serializer.getExtensionName());
+        writer.writeNamespace(serializer.getNamespacePrefix(), namespaceUri);
+        serializer.write(linePosition, () -> writer);
+        writer.writeEndElement();
+        writer.close();
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public LinePosition<Line> read() throws XMLStreamException {
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xml));
+        try {
+            reader.nextTag();
+            return serializer.read(line, () -> reader);
+        } finally {
+            reader.close();
+        }
+    }
+}
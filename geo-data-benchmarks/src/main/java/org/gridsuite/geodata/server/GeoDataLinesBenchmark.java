@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lines computation of {@link GeoDataService} on synthetic networks, including the computation of the substations
+ * at their ends, the stored geo data being served from memory.
+ *
+ * @author agent <agent at local>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GeoDataLinesBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int substationCount;
+
+    @Param({"50", "90"})
+    private int knownPercent;
+
+    @Param({"10", "100"})
+    private int coordinatesPerLine;
+
+    private SyntheticGeoData data;
+
+    private GeoDataService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = SyntheticGeoData.create(substationCount, knownPercent, coordinatesPerLine, 42);
+        service = GeoDataServiceBenchmark.createService(data);
+    }
+
+    @Benchmark
+    public List<LineGeoData> getLines() {
+        return service.getLines(data.getNetwork(), Collections.emptySet());
+    }
+}
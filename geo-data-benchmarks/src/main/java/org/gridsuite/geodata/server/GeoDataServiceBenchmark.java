@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.powsybl.iidm.network.Substation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Substations computation of {@link GeoDataService} on synthetic networks, the stored geo data
+ * being served from memory.
+ *
+ * @author agent <agent at local>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GeoDataServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int substationCount;
+
+    @Param({"50", "90"})
+    private int knownPercent;
+
+    private SyntheticGeoData data;
+
+    private GeoDataService service;
+
+    private List<Substation> substations;
+
+    private Map<String, SubstationGeoData> substationsGeoData;
+
+    private Set<String> substationsToCalculate;
+
+    /**
+     * Creates a service reading its geo data from the synthetic data, the other beans not being needed.
+     */
+    static GeoDataService createService(SyntheticGeoData data) {
+        return new GeoDataService(new StaticGeoDataCache(data), new GeoDataMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = SyntheticGeoData.create(substationCount, knownPercent, 0, 42);
+        service = createService(data);
+        substations = data.getNetwork().getSubstationStream().collect(Collectors.toList());
+    }
+
+    /**
+     * The calculation of the missing positions fills the maps it is given, they are copied before each call.
+     */
+    @Setup(Level.Invocation)
+    public void copyKnownPositions() {
+        substationsGeoData = new HashMap<>(data.getSubstations());
+        substationsToCalculate = substations.stream()
+                .map(Substation::getId)
+                .filter(id -> !substationsGeoData.containsKey(id))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    @Benchmark
+    public List<SubstationGeoData> getSubstations() {
+        return service.getSubstations(data.getNetwork(), Collections.emptySet());
+    }
+
+    @Benchmark
+    public SubstationGraph buildNeighbours() {
+        return SubstationGraph.build(substations);
+    }
+
+    @Benchmark
+    public Map<String, SubstationGeoData> calculateMissingGeoData() {
+        service.calculateMissingGeoData(substations, substationsGeoData, substationsToCalculate);
+        return substationsGeoData;
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.powsybl.iidm.network.Country;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.gridsuite.geodata.server.repositories.GeoDataGenerationRepository;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Geo data cache always holding the same synthetic geo data, so that the benchmarks do not measure the DB.
+ *
+ * @author agent <agent at local>
+ */
+class StaticGeoDataCache extends GeoDataCache {
+
+    private final SyntheticGeoData data;
+
+    StaticGeoDataCache(SyntheticGeoData data) {
+        this.data = data;
+    }
+
+    @Override
+    public UUID getGeneration() {
+        // never saved
+        return GeoDataGenerationRepository.INITIAL_GENERATION;
+    }
+
+    @Override
+    public Map<String, SubstationGeoData> getSubstations(Set<Country> countries) {
+        return data.getSubstations();
+    }
+
+    @Override
+    public Map<String, LineGeoData> getLines(Set<Country> countries) {
+        return data.getLines();
+    }
+
+    @Override
+    public void prefetchSubstations(Set<Country> countries) {
+        // nothing to read
+    }
+
+    @Override
+    public void prefetchLines(Set<Country> countries) {
+        // nothing to read
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.powsybl.iidm.network.*;
+import com.powsybl.iidm.network.impl.NetworkFactoryImpl;
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+
+import java.util.*;
+
+/**
+ * A synthetic network and its stored geo data: substations on a square grid, each one connected by a line to its
+ * right and bottom neighbours, spread on three countries by bands of rows. A given percentage of the substations
+ * have a stored position, and the lines between two of them have a stored geometry of a given number of coordinates.
+ *
+ * @author agent <agent at local>
+ */
+final class SyntheticGeoData {
+
+    private static final Country[] COUNTRIES = {Country.FR, Country.BE, Country.DE};
+
+    private final Network network;
+
+    private final Map<String, SubstationGeoData> substations = new HashMap<>();
+
+    private final Map<String, LineGeoData> lines = new HashMap<>();
+
+    private SyntheticGeoData(Network network) {
+        this.network = network;
+    }
+
+    Network getNetwork() {
+        return network;
+    }
+
+    Map<String, SubstationGeoData> getSubstations() {
+        return substations;
+    }
+
+    Map<String, LineGeoData> getLines() {
+        return lines;
+    }
+
+    private static Coordinate position(int row, int column, double spacing) {
+        return new Coordinate(42 + row * spacing, -4 + column * spacing);
+    }
+
+    private static void addLine(Network network, int from, int to) {
+        network.newLine()
+                .setId("L" + from + "_" + to)
+                .setVoltageLevel1("VL" + from)
+                .setBus1("B" + from)
+                .setConnectableBus1("B" + from)
+                .setVoltageLevel2("VL" + to)
+                .setBus2("B" + to)
+                .setConnectableBus2("B" + to)
+                .setR(1)
+                .setX(10)
+                .setG1(0)
+                .setB1(0)
+                .setG2(0)
+                .setB2(0)
+                .add();
+    }
+
+    static SyntheticGeoData create(int substationCount, int knownPercent, int coordinatesPerLine, long seed) {
+        int side = (int) Math.ceil(Math.sqrt(substationCount));
+        double spacing = 8d / side;
+        Random random = new Random(seed);
+
+        SyntheticGeoData data = new SyntheticGeoData(new NetworkFactoryImpl().createNetwork("synthetic-" + substationCount, "synthetic"));
+        Network network = data.network;
+        boolean[] known = new boolean[substationCount];
+        for (int i = 0; i < substationCount; i++) {
+            int row = i / side;
+            Country country = COUNTRIES[Math.min(COUNTRIES.length - 1, row * COUNTRIES.length / side)];
+            Substation substation = network.newSubstation()
+                    .setId("S" + i)
+                    .setCountry(country)
+                    .add();
+            VoltageLevel vl = substation.newVoltageLevel()
+                    .setId("VL" + i)
+                    .setNominalV(400)
+                    .setTopologyKind(TopologyKind.BUS_BREAKER)
+                    .add();
+            vl.getBusBreakerView().newBus()
+                    .setId("B" + i)
+                    .add();
+            known[i] = random.nextInt(100) < knownPercent;
+            if (known[i]) {
+                data.substations.put(substation.getId(), new SubstationGeoData(substation.getId(), country, position(row, i % side, spacing)));
+            }
+        }
+
+        for (int i = 0; i < substationCount; i++) {
+            int[] neighbours = {i % side < side - 1 ? i + 1 : -1, i + side};
+            for (int j : neighbours) {
+                if (j >= 0 && j < substationCount) {
+                    addLine(network, i, j);
+                    if (known[i] && known[j]) {
+                        Coordinate start = data.substations.get("S" + i).getCoordinate();
+                        Coordinate end = data.substations.get("S" + j).getCoordinate();
+                        List<Coordinate> coordinates = new ArrayList<>(coordinatesPerLine);
+                        for (int k = 0; k < coordinatesPerLine; k++) {
+                            double t = (k + 1d) / (coordinatesPerLine + 1);
+                            coordinates.add(new Coordinate(start.getLat() + t * (end.getLat() - start.getLat()) + random.nextGaussian() * spacing / 100,
+                                    start.getLon() + t * (end.getLon() - start.getLon()) + random.nextGaussian() * spacing / 100));
+                        }
+                        String id = "L" + i + "_" + j;
+                        data.lines.put(id, new LineGeoData(id, data.substations.get("S" + i).getCountry(), data.substations.get("S" + j).getCountry(),
+                                "S" + i, "S" + j, coordinates));
+                    }
+                }
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server.repositories;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.data.UdtValue;
+import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.UserDefinedType;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.internal.core.cql.DefaultColumnDefinitions;
+import com.datastax.oss.driver.internal.core.cql.DefaultRow;
+import com.datastax.oss.driver.internal.core.type.UserDefinedTypeBuilder;
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of a row of the lines table, the row holding the same bytes as a row received from Cassandra,
+ * with the coordinates in the legacy list of user defined type values or in the packed coordinates column.
+ *
+ * @author agent <agent at local>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LineRowBenchmark {
+
+    private static final CqlIdentifier KEYSPACE = CqlIdentifier.fromInternal("geo_data");
+
+    private static final CqlIdentifier TABLE = CqlIdentifier.fromInternal("lines");
+
+    @Param({"10", "100", "1000"})
+    private int coordinatesPerLine;
+
+    @Param({"udt", "packed"})
+    private String format;
+
+    private Row row;
+
+    private static final class Column implements ColumnDefinition {
+
+        private final CqlIdentifier name;
+
+        private final DataType type;
+
+        private Column(String name, DataType type) {
+            this.name = CqlIdentifier.fromInternal(name);
+            this.type = type;
+        }
+
+        @Override
+        public CqlIdentifier getKeyspace() {
+            return KEYSPACE;
+        }
+
+        @Override
+        public CqlIdentifier getTable() {
+            return TABLE;
+        }
+
+        @Override
+        public CqlIdentifier getName() {
+            return name;
+        }
+
+        @Override
+        public DataType getType() {
+            return type;
+        }
+
+        @Override
+        public boolean isDetached() {
+            return false;
+        }
+
+        @Override
+        public void attach(AttachmentPoint attachmentPoint) {
+            // nothing to attach, the types are built locally
+        }
+    }
+
+    private static <T> ByteBuffer encode(DataType type, T value) {
+        return CodecRegistry.DEFAULT.<T>codecFor(type).encode(value, ProtocolVersion.DEFAULT);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserDefinedType coordinateType = new UserDefinedTypeBuilder(KEYSPACE, CqlIdentifier.fromInternal("coordinate"))
+                .withField("lat", DataTypes.DOUBLE)
+                .withField("lon", DataTypes.DOUBLE)
+                .frozen()
+                .build();
+        DataType coordinatesType = DataTypes.frozenListOf(coordinateType);
+
+        Random random = new Random(42);
+        List<UdtValue> coordinates = new ArrayList<>(coordinatesPerLine);
+        List<Coordinate> packedCoordinates = new ArrayList<>(coordinatesPerLine);
+        for (int i = 0; i < coordinatesPerLine; i++) {
+            double lat = 42 + random.nextDouble() * 8;
+            double lon = -4 + random.nextDouble() * 12;
+            coordinates.add(coordinateType.newValue(lat, lon));
+            packedCoordinates.add(new Coordinate(lat, lon));
+        }
+        boolean packed = format.equals("packed");
+
+        List<ColumnDefinition> columns = List.of(
+                new Column("country", DataTypes.TEXT),
+                new Column("id", DataTypes.TEXT),
+                new Column("coordinates", coordinatesType),
+                new Column("othercountry", DataTypes.TEXT),
+                new Column("packedcoordinates", DataTypes.BLOB),
+                new Column("side1", DataTypes.BOOLEAN),
+                new Column("substationend", DataTypes.TEXT),
+                new Column("substationstart", DataTypes.TEXT));
+        List<ByteBuffer> values = Arrays.asList(
+                encode(DataTypes.TEXT, "FR"),
+                encode(DataTypes.TEXT, "LINE_FR_BE_1"),
+                packed ? null : encode(coordinatesType, coordinates),
+                encode(DataTypes.TEXT, "BE"),
+                packed ? PackedCoordinates.encode(packedCoordinates) : null,
+                encode(DataTypes.BOOLEAN, true),
+                encode(DataTypes.TEXT, "SUB_BE"),
+                encode(DataTypes.TEXT, "SUB_FR"));
+        row = new DefaultRow(DefaultColumnDefinitions.valueOf(columns), values);
+    }
+
+    @Benchmark
+    public LineGeoData rowToLineGeoData() {
+        return LineCustomRepository.rowToLineGeoData(row);
+    }
+}
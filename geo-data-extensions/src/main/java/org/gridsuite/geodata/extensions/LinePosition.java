@@ -11,10 +11,13 @@ import com.powsybl.iidm.network.DanglingLine;
 import com.powsybl.iidm.network.Identifiable;
 import com.powsybl.iidm.network.Line;
 
+import java.util.AbstractList;
 import java.util.List;
 import java.util.Objects;
 
 /**
+ * Coordinates of a line. They are packed in a single array of interleaved latitudes and longitudes,
+ * 16 bytes per coordinate instead of a {@link Coordinate} object and its reference in a list.
  *
  * @author Massimo Ferraro <massimo.ferraro@techrain.eu>
  */
@@ -22,19 +25,47 @@ public class LinePosition<T extends Identifiable<T>> extends AbstractExtension<T
 
     static final String NAME = "line-position";
 
-    private final List<Coordinate> coordinates;
+    private final double[] coordinates;
 
-    private LinePosition(T line, List<Coordinate> coordinates) {
+    private LinePosition(T line, double[] coordinates) {
         super(line);
         this.coordinates = Objects.requireNonNull(coordinates);
+        if (coordinates.length % 2 != 0) {
+            throw new IllegalArgumentException("Packed coordinates must be latitude and longitude pairs");
+        }
     }
 
     public LinePosition(Line line, List<Coordinate> coordinates) {
-        this((T) line, coordinates);
+        this((T) line, pack(coordinates));
     }
 
     public LinePosition(DanglingLine danglingLine, List<Coordinate> coordinates) {
-        this((T) danglingLine, coordinates);
+        this((T) danglingLine, pack(coordinates));
+    }
+
+    /**
+     * @param packedCoordinates interleaved latitudes and longitudes, the array is not copied
+     */
+    public LinePosition(Line line, double[] packedCoordinates) {
+        this((T) line, packedCoordinates);
+    }
+
+    /**
+     * @param packedCoordinates interleaved latitudes and longitudes, the array is not copied
+     */
+    public LinePosition(DanglingLine danglingLine, double[] packedCoordinates) {
+        this((T) danglingLine, packedCoordinates);
+    }
+
+    private static double[] pack(List<Coordinate> coordinates) {
+        Objects.requireNonNull(coordinates);
+        double[] packed = new double[coordinates.size() * 2];
+        int i = 0;
+        for (Coordinate coordinate : coordinates) {
+            packed[i++] = coordinate.getLat();
+            packed[i++] = coordinate.getLon();
+        }
+        return packed;
     }
 
     @Override
@@ -42,8 +73,42 @@ public class LinePosition<T extends Identifiable<T>> extends AbstractExtension<T
         return NAME;
     }
 
+    /**
+     * Read only view of the coordinates, a {@link Coordinate} being created at each access.
+     */
     public List<Coordinate> getCoordinates() {
-        return coordinates;
+        return new AbstractList<>() {
+            @Override
+            public Coordinate get(int index) {
+                return new Coordinate(getLat(index), getLon(index));
+            }
+
+            @Override
+            public int size() {
+                return getCoordinateCount();
+            }
+        };
+    }
+
+    public int getCoordinateCount() {
+        return coordinates.length / 2;
+    }
+
+    public double getLat(int index) {
+        Objects.checkIndex(index, getCoordinateCount());
+        return coordinates[2 * index];
+    }
+
+    public double getLon(int index) {
+        Objects.checkIndex(index, getCoordinateCount());
+        return coordinates[2 * index + 1];
+    }
+
+    /**
+     * Copy of the interleaved latitudes and longitudes.
+     */
+    public double[] getPackedCoordinates() {
+        return coordinates.clone();
     }
 
 }
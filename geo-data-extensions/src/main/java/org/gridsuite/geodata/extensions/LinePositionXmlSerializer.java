@@ -7,6 +7,7 @@
 package org.gridsuite.geodata.extensions;
 
 import com.google.auto.service.AutoService;
+import com.powsybl.commons.PowsyblException;
 import com.powsybl.commons.extensions.AbstractExtensionXmlSerializer;
 import com.powsybl.commons.extensions.ExtensionXmlSerializer;
 import com.powsybl.commons.xml.XmlReaderContext;
@@ -17,42 +18,117 @@ import com.powsybl.iidm.network.Identifiable;
 import com.powsybl.iidm.network.Line;
 
 import javax.xml.stream.XMLStreamException;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 
 /**
+ * Version 1.0 writes a coordinate element per point. Version 1.1 writes all the points in a single attribute,
+ * as base64 encoded big endian doubles, which is much faster to read and write for lines with many points.
+ * Version 1.0 stays the default one, version 1.1 being written when asked in the export options.
  *
  * @author Massimo Ferraro <massimo.ferraro@techrain.eu>
  */
 @AutoService(ExtensionXmlSerializer.class)
 public class LinePositionXmlSerializer<T extends Identifiable<T>> extends AbstractExtensionXmlSerializer<T, LinePosition<T>> {
 
+    static final String VERSION_1_0 = "1.0";
+
+    static final String VERSION_1_1 = "1.1";
+
+    private static final Map<String, String> NAMESPACE_URIS = Map.of(
+            VERSION_1_0, "http://www.itesla_project.eu/schema/iidm/ext/line_position/1_0",
+            VERSION_1_1, "http://www.itesla_project.eu/schema/iidm/ext/line_position/1_1");
+
+    private static final String COORDINATES = "coordinates";
+
     public LinePositionXmlSerializer() {
         super(LinePosition.NAME, "network", LinePosition.class, true, "linePosition.xsd",
-                "http://www.itesla_project.eu/schema/iidm/ext/line_position/1_0", "lp");
+                NAMESPACE_URIS.get(VERSION_1_0), "lp");
+    }
+
+    @Override
+    public String getNamespaceUri(String extensionVersion) {
+        checkExtensionVersionSupported(extensionVersion);
+        return NAMESPACE_URIS.get(extensionVersion);
+    }
+
+    @Override
+    public void checkExtensionVersionSupported(String extensionVersion) {
+        if (!NAMESPACE_URIS.containsKey(extensionVersion)) {
+            throw new PowsyblException("The version " + extensionVersion + " of the " + getExtensionName() + " extension is not supported");
+        }
+    }
+
+    @Override
+    public List<InputStream> getXsdAsStreamList() {
+        return List.of(getXsdAsStream(), getClass().getResourceAsStream("/xsd/linePosition_V1_1.xsd"));
     }
 
     @Override
     public void write(LinePosition<T> linePosition, XmlWriterContext context) throws XMLStreamException {
-        for (Coordinate point : linePosition.getCoordinates()) {
-            context.getWriter().writeEmptyElement(getNamespaceUri(), "coordinate");
-            XmlUtil.writeDouble("longitude", point.getLon(), context.getWriter());
-            XmlUtil.writeDouble("latitude", point.getLat(), context.getWriter());
+        // the version to write is the one of the namespace bound to the prefix by the network writer
+        String namespaceUri = context.getWriter().getNamespaceContext().getNamespaceURI(getNamespacePrefix());
+        if (NAMESPACE_URIS.get(VERSION_1_1).equals(namespaceUri)) {
+            writeCompact(linePosition, context);
+        } else {
+            for (int i = 0; i < linePosition.getCoordinateCount(); i++) {
+                context.getWriter().writeEmptyElement(getNamespaceUri(), "coordinate");
+                XmlUtil.writeDouble("longitude", linePosition.getLon(i), context.getWriter());
+                XmlUtil.writeDouble("latitude", linePosition.getLat(i), context.getWriter());
+            }
+        }
+    }
+
+    private static void writeCompact(LinePosition<?> linePosition, XmlWriterContext context) throws XMLStreamException {
+        ByteBuffer buffer = ByteBuffer.allocate(linePosition.getCoordinateCount() * 2 * Double.BYTES);
+        for (int i = 0; i < linePosition.getCoordinateCount(); i++) {
+            buffer.putDouble(linePosition.getLat(i)).putDouble(linePosition.getLon(i));
         }
+        context.getWriter().writeAttribute(COORDINATES, Base64.getEncoder().encodeToString(buffer.array()));
     }
 
     @Override
     public LinePosition<T> read(T line, XmlReaderContext context) throws XMLStreamException {
-        List<Coordinate> coordinates = new ArrayList<>();
+        if (NAMESPACE_URIS.get(VERSION_1_1).equals(context.getReader().getNamespaceURI())) {
+            return createLinePosition(line, readCompact(context));
+        }
+        double[][] coordinates = {new double[16]};
+        int[] size = {0};
         XmlUtil.readUntilEndElement(getExtensionName(), context.getReader(), () -> {
             double longitude = XmlUtil.readDoubleAttribute(context.getReader(), "longitude");
             double latitude = XmlUtil.readDoubleAttribute(context.getReader(), "latitude");
-            coordinates.add(new Coordinate(latitude, longitude));
+            if (size[0] + 2 > coordinates[0].length) {
+                coordinates[0] = Arrays.copyOf(coordinates[0], coordinates[0].length * 2);
+            }
+            coordinates[0][size[0]++] = latitude;
+            coordinates[0][size[0]++] = longitude;
+        });
+        return createLinePosition(line, Arrays.copyOf(coordinates[0], size[0]));
+    }
+
+    private double[] readCompact(XmlReaderContext context) throws XMLStreamException {
+        String encoded = context.getReader().getAttributeValue(null, COORDINATES);
+        if (encoded == null) {
+            throw new PowsyblException("Missing " + COORDINATES + " attribute in " + getExtensionName() + " extension");
+        }
+        byte[] bytes = Base64.getDecoder().decode(encoded);
+        if (bytes.length % (2 * Double.BYTES) != 0) {
+            throw new PowsyblException("Invalid " + COORDINATES + " attribute length in " + getExtensionName() + " extension");
+        }
+        // the storage is sized from the encoded length, without any intermediate object
+        double[] coordinates = new double[bytes.length / Double.BYTES];
+        ByteBuffer.wrap(bytes).asDoubleBuffer().get(coordinates);
+        XmlUtil.readUntilEndElement(getExtensionName(), context.getReader(), () -> {
+            throw new PowsyblException("Unexpected element " + context.getReader().getLocalName() + " in " + getExtensionName() + " extension");
         });
-        return createLinePosition(line, coordinates);
+        return coordinates;
     }
 
-    private LinePosition<T> createLinePosition(T line, List<Coordinate> coordinates) {
+    private LinePosition<T> createLinePosition(T line, double[] coordinates) {
         if (line instanceof Line) {
             return new LinePosition<>((Line) line, coordinates);
         } else if (line instanceof DanglingLine) {
@@ -8,6 +8,7 @@ package org.gridsuite.geodata.extensions;
 
 import com.google.common.collect.ImmutableList;
 import com.powsybl.commons.AbstractConverterTest;
+import com.powsybl.iidm.export.ExportOptions;
 import com.powsybl.iidm.network.Line;
 import com.powsybl.iidm.network.Network;
 import com.powsybl.iidm.network.Substation;
@@ -17,6 +18,7 @@ import org.junit.Test;
 import java.io.IOException;
 
 import static org.gridsuite.geodata.extensions.GLTestUtils.*;
+import static org.junit.Assert.*;
 
 /**
  *
@@ -45,4 +47,47 @@ public class PositionTest extends AbstractConverterTest {
 
         GLTestUtils.checkNetwork(network2);
     }
+
+    @Test
+    public void testV11() throws IOException {
+        Network network = GLTestUtils.getNetwork();
+        Substation substation1 = network.getSubstation("Substation1");
+        substation1.addExtension(SubstationPosition.class, new SubstationPosition(substation1, SUBSTATION_1));
+
+        Substation substation2 = network.getSubstation("Substation2");
+        substation2.addExtension(SubstationPosition.class, new SubstationPosition(substation2, SUBSTATION_2));
+
+        Line line = network.getLine("Line");
+        line.addExtension(LinePosition.class, new LinePosition<>(line, ImmutableList.of(SUBSTATION_1, LINE_1, LINE_2, SUBSTATION_2)));
+
+        ExportOptions options = new ExportOptions().addExtensionVersion(LinePosition.NAME, LinePositionXmlSerializer.VERSION_1_1);
+        Network network2 = roundTripXmlTest(network,
+            (n, path) -> NetworkXml.writeAndValidate(n, options, path),
+            NetworkXml::read,
+            "/network_V1_1.xml");
+
+        GLTestUtils.checkNetwork(network2);
+
+        // the 1.0 version is still read
+        GLTestUtils.checkNetwork(NetworkXml.read(getClass().getResourceAsStream("/network.xml")));
+    }
+
+    @Test
+    public void testPackedCoordinates() {
+        Network network = GLTestUtils.getNetwork();
+        Line line = network.getLine("Line");
+        LinePosition<Line> linePosition = new LinePosition<>(line, ImmutableList.of(SUBSTATION_1, LINE_1, SUBSTATION_2));
+        assertEquals(3, linePosition.getCoordinateCount());
+        assertEquals(LINE_1.getLat(), linePosition.getLat(1), 0);
+        assertEquals(LINE_1.getLon(), linePosition.getLon(1), 0);
+        assertEquals(ImmutableList.of(SUBSTATION_1, LINE_1, SUBSTATION_2), linePosition.getCoordinates());
+        assertArrayEquals(new double[] {SUBSTATION_1.getLat(), SUBSTATION_1.getLon(), LINE_1.getLat(), LINE_1.getLon(),
+            SUBSTATION_2.getLat(), SUBSTATION_2.getLon()}, linePosition.getPackedCoordinates(), 0);
+        assertThrows(IndexOutOfBoundsException.class, () -> linePosition.getLat(3));
+        assertThrows(UnsupportedOperationException.class, () -> linePosition.getCoordinates().add(LINE_2));
+
+        LinePosition<Line> packed = new LinePosition<>(line, new double[] {1, 2, 3, 4});
+        assertEquals(ImmutableList.of(new Coordinate(1, 2), new Coordinate(3, 4)), packed.getCoordinates());
+        assertThrows(IllegalArgumentException.class, () -> new LinePosition<>(line, new double[] {1, 2, 3}));
+    }
 }
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * A geographical rectangle, bounds included, not crossing the antimeridian.
+ *
+ * @author agent <agent at local>
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class BoundingBox {
+
+    private final double minLat;
+
+    private final double minLon;
+
+    private final double maxLat;
+
+    private final double maxLon;
+
+    public BoundingBox(double minLat, double minLon, double maxLat, double maxLon) {
+        if (Double.isNaN(minLat) || Double.isNaN(minLon) || Double.isNaN(maxLat) || Double.isNaN(maxLon)) {
+            throw new IllegalArgumentException("Bounding box bounds must be numbers");
+        }
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new IllegalArgumentException("Bounding box minimums must not be greater than its maximums");
+        }
+        this.minLat = minLat;
+        this.minLon = minLon;
+        this.maxLat = maxLat;
+        this.maxLon = maxLon;
+    }
+
+    /**
+     * Creates a bounding box from its bounds in the order minLat, minLon, maxLat, maxLon.
+     */
+    public static BoundingBox of(List<Double> bounds) {
+        if (bounds.size() != 4) {
+            throw new IllegalArgumentException("Bounding box expected as minLat,minLon,maxLat,maxLon, " + bounds.size() + " values found");
+        }
+        return new BoundingBox(bounds.get(0), bounds.get(1), bounds.get(2), bounds.get(3));
+    }
+
+    public boolean contains(double lat, double lon) {
+        return lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon;
+    }
+
+    public boolean intersects(double otherMinLat, double otherMinLon, double otherMaxLat, double otherMaxLon) {
+        return otherMinLat <= maxLat && otherMaxLat >= minLat && otherMinLon <= maxLon && otherMaxLon >= minLon;
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of gzip compressed response bodies, by entity tag: the tag of a response already identifies its network,
+ * its parameters, its format and the version of the stored geo data it is computed from. A response is compressed
+ * while it is streamed to the first client, and a copy of the compressed bytes is kept if the response is complete
+ * and not too large, so that the next clients get the bytes without any serialization nor compression.
+ *
+ * @author agent <agent at local>
+ */
+@Component
+public class CompressedResponseCache {
+
+    static final String GZIP = "gzip";
+
+    @Value("${network-geo-data.compressed-responses-cache.max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${network-geo-data.compressed-responses-cache.max-response-bytes:33554432}")
+    private int maxResponseBytes;
+
+    @Value("${network-geo-data.compressed-responses-cache.expire-after-write:1h}")
+    private Duration expireAfterWrite;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, byte[]> responses;
+
+    @PostConstruct
+    void init() {
+        responses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<String, byte[]>weigher((tag, response) -> response.length)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "geoDataCompressedResponses");
+    }
+
+    byte[] get(String eTag) {
+        return responses.getIfPresent(eTag);
+    }
+
+    /**
+     * Writes a response gzip compressed to the output stream, and keeps a copy of the compressed bytes
+     * once the whole response has been written.
+     */
+    void writeCompressed(String eTag, OutputStream out, StreamingResponseBody body) throws IOException {
+        // the output stream of the response is closed by the container, closing the gzip stream only releases
+        // its deflater, also when the body fails
+        CopyingOutputStream copying = new CopyingOutputStream(StreamUtils.nonClosing(out), maxResponseBytes);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(copying, 8192)) {
+            body.writeTo(gzip);
+        }
+        byte[] compressed = copying.getCopy();
+        if (compressed != null) {
+            responses.put(eTag, compressed);
+        }
+    }
+
+    /**
+     * Output stream writing to another one and keeping a copy of the bytes, the copy being dropped
+     * when it exceeds a maximum size.
+     */
+    private static final class CopyingOutputStream extends FilterOutputStream {
+
+        private final int maxSize;
+
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        private CopyingOutputStream(OutputStream out, int maxSize) {
+            super(out);
+            this.maxSize = maxSize;
+        }
+
+        private void copy(byte[] b, int off, int len) {
+            if (copy != null) {
+                if (copy.size() + len > maxSize) {
+                    copy = null;
+                } else {
+                    copy.write(b, off, len);
+                }
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            copy(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            copy(b, off, len);
+        }
+
+        byte[] getCopy() {
+            return copy != null ? copy.toByteArray() : null;
+        }
+    }
+}
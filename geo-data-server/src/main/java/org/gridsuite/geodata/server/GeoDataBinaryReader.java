@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.powsybl.iidm.network.Country;
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the binary format written by {@link GeoDataBinaryWriter}.
+ *
+ * @author agent <agent at local>
+ */
+public final class GeoDataBinaryReader {
+
+    private final InputStream in;
+
+    private long lastLat;
+
+    private long lastLon;
+
+    private GeoDataBinaryReader(InputStream in) {
+        this.in = new BufferedInputStream(in);
+    }
+
+    public static List<SubstationGeoData> readSubstations(InputStream in) throws IOException {
+        GeoDataBinaryReader reader = new GeoDataBinaryReader(in);
+        reader.readHeader(GeoDataBinaryWriter.SUBSTATIONS);
+        List<SubstationGeoData> substations = new ArrayList<>();
+        while (reader.hasMore()) {
+            substations.add(SubstationGeoData.builder()
+                    .id(reader.readString())
+                    .country(reader.readCountry())
+                    .coordinate(reader.readDelta())
+                    .build());
+        }
+        return substations;
+    }
+
+    public static List<LineGeoData> readLines(InputStream in) throws IOException {
+        GeoDataBinaryReader reader = new GeoDataBinaryReader(in);
+        reader.readHeader(GeoDataBinaryWriter.LINES);
+        List<LineGeoData> lines = new ArrayList<>();
+        while (reader.hasMore()) {
+            String id = reader.readString();
+            Country country1 = reader.readCountry();
+            Country country2 = reader.readCountry();
+            String substationStart = reader.readString();
+            String substationEnd = reader.readString();
+            int count = (int) reader.readVarint();
+            List<Coordinate> coordinates = new ArrayList<>(count);
+            reader.lastLat = 0;
+            reader.lastLon = 0;
+            for (int i = 0; i < count; i++) {
+                coordinates.add(reader.readDelta());
+            }
+            lines.add(new LineGeoData(id, country1, country2, substationStart, substationEnd, coordinates));
+        }
+        return lines;
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Truncated geo data stream");
+        }
+        return b;
+    }
+
+    private boolean hasMore() throws IOException {
+        in.mark(1);
+        boolean more = in.read() >= 0;
+        in.reset();
+        return more;
+    }
+
+    private void readHeader(byte expectedKind) throws IOException {
+        byte[] magic = new byte[GeoDataBinaryWriter.MAGIC.length];
+        for (int i = 0; i < magic.length; i++) {
+            magic[i] = (byte) readByte();
+        }
+        if (!Arrays.equals(magic, GeoDataBinaryWriter.MAGIC)) {
+            throw new IOException("Not a geo data stream");
+        }
+        int version = readByte();
+        if (version != GeoDataBinaryWriter.VERSION) {
+            throw new IOException("Unsupported geo data stream version " + version);
+        }
+        int kind = readByte();
+        if (kind != expectedKind) {
+            throw new IOException("Unexpected geo data stream kind '" + (char) kind + "'");
+        }
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in geo data stream");
+    }
+
+    private long readZigzag() throws IOException {
+        long v = readVarint();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private String readString() throws IOException {
+        int length = (int) readVarint();
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) readByte();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Country readCountry() throws IOException {
+        String country = readString();
+        return country != null ? Country.valueOf(country) : null;
+    }
+
+    private Coordinate readDelta() throws IOException {
+        lastLat += readZigzag();
+        lastLon += readZigzag();
+        return new Coordinate(lastLat / GeoDataBinaryWriter.SCALE, lastLon / GeoDataBinaryWriter.SCALE);
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.powsybl.iidm.network.Country;
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes substations or lines geographical data in a compact binary format, as an alternative to JSON.
+ * <p>
+ * A stream starts with the {@link #MAGIC} bytes, the format {@link #VERSION} and a kind byte ({@link #SUBSTATIONS}
+ * or {@link #LINES}), followed by the records up to the end of the stream:
+ * <ul>
+ *     <li>a substation is its id, its country, and its coordinate as a delta from the previous substation,</li>
+ *     <li>a line is its id, its two countries, its start and end substations, its number of coordinates, and
+ *     its coordinates, each one as a delta from the previous coordinate of the line.</li>
+ * </ul>
+ * Latitudes and longitudes are converted to integers in units of 1e-7 degree (about one centimetre), and deltas
+ * are written as zigzag varints. Strings are written as a varint of their UTF-8 length plus one, 0 standing for null,
+ * followed by their UTF-8 bytes. Countries are written as strings with their ISO code.
+ *
+ * @author agent <agent at local>
+ */
+public final class GeoDataBinaryWriter implements AutoCloseable {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.gridsuite.geo-data+binary";
+
+    public static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+
+    static final byte[] MAGIC = {'G', 'D', 'B'};
+
+    static final byte VERSION = 1;
+
+    static final byte SUBSTATIONS = 'S';
+
+    static final byte LINES = 'L';
+
+    static final double SCALE = 1e7;
+
+    private final OutputStream out;
+
+    private final byte kind;
+
+    private long lastLat;
+
+    private long lastLon;
+
+    private boolean started;
+
+    private GeoDataBinaryWriter(OutputStream out, byte kind) {
+        // the target stream is flushed but left open when closing the writer
+        this.out = new BufferedOutputStream(out, 64 * 1024);
+        this.kind = kind;
+    }
+
+    /**
+     * Writes an element with the write method of its kind.
+     */
+    @FunctionalInterface
+    public interface ElementWriter<T> {
+        void write(GeoDataBinaryWriter writer, T element) throws IOException;
+    }
+
+    public static GeoDataBinaryWriter forSubstations(OutputStream out) {
+        return new GeoDataBinaryWriter(out, SUBSTATIONS);
+    }
+
+    public static GeoDataBinaryWriter forLines(OutputStream out) {
+        return new GeoDataBinaryWriter(out, LINES);
+    }
+
+    static long toFixedPoint(double degrees) {
+        return Math.round(degrees * SCALE);
+    }
+
+    private void writeHeader() throws IOException {
+        if (!started) {
+            out.write(MAGIC);
+            out.write(VERSION);
+            out.write(kind);
+            started = true;
+        }
+    }
+
+    private void writeVarint(long value) throws IOException {
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private void writeZigzag(long value) throws IOException {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarint(0);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1L);
+            out.write(bytes);
+        }
+    }
+
+    private void writeCountry(Country country) throws IOException {
+        writeString(country != null ? country.name() : null);
+    }
+
+    private void writeDelta(Coordinate coordinate) throws IOException {
+        long lat = toFixedPoint(coordinate.getLat());
+        long lon = toFixedPoint(coordinate.getLon());
+        writeZigzag(lat - lastLat);
+        writeZigzag(lon - lastLon);
+        lastLat = lat;
+        lastLon = lon;
+    }
+
+    public void write(SubstationGeoData substation) throws IOException {
+        if (kind != SUBSTATIONS) {
+            throw new IllegalStateException("Not a substations writer");
+        }
+        writeHeader();
+        writeString(substation.getId());
+        writeCountry(substation.getCountry());
+        writeDelta(substation.getCoordinate());
+    }
+
+    public void write(LineGeoData line) throws IOException {
+        if (kind != LINES) {
+            throw new IllegalStateException("Not a lines writer");
+        }
+        writeHeader();
+        writeString(line.getId());
+        writeCountry(line.getCountry1());
+        writeCountry(line.getCountry2());
+        writeString(line.getSubstationStart());
+        writeString(line.getSubstationEnd());
+        List<Coordinate> coordinates = line.getCoordinates();
+        writeVarint(coordinates.size());
+        lastLat = 0;
+        lastLon = 0;
+        for (Coordinate coordinate : coordinates) {
+            writeDelta(coordinate);
+        }
+    }
+
+    /**
+     * Writes the header if no record has been written, and flushes the buffered bytes.
+     */
+    @Override
+    public void close() throws IOException {
+        writeHeader();
+        out.flush();
+    }
+}
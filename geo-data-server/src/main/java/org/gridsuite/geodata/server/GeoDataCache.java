@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.datastax.oss.driver.api.core.DriverException;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.powsybl.iidm.network.Country;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.gridsuite.geodata.server.repositories.GeoDataGenerationRepository;
+import org.gridsuite.geodata.server.repositories.LineCustomRepository;
+import org.gridsuite.geodata.server.repositories.SubstationCustomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In memory cache of the geo data stored in the DB, by country partition.
+ * Entries are bounded by their number of substations or line coordinates, and are
+ * invalidated when geo data of their country is saved.
+ * <p>
+ * Geo data saved through another instance of the server are detected with the generation of the stored geo data,
+ * see {@link GeoDataGenerationRepository}: the stored generation is read again at most every
+ * {@code network-geo-data.cache.generation-refresh}, and everything is invalidated when it has changed. The
+ * expiration after {@code network-geo-data.cache.expire-after-write} only bounds the staleness when the generation
+ * cannot be read.
+ * <p>
+ * The network store does not tell when a network is modified: the generation of a network is started again on demand,
+ * and read again like the generation of the geo data.
+ *
+ * @author agent <agent at local>
+ */
+@Component
+public class GeoDataCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeoDataCache.class);
+
+    private static final int MAX_NETWORK_GENERATIONS = 10000;
+
+    @Value("${network-geo-data.cache.max-substations:1000000}")
+    private long maxSubstations;
+
+    @Value("${network-geo-data.cache.max-line-coordinates:10000000}")
+    private long maxLineCoordinates;
+
+    @Value("${network-geo-data.cache.expire-after-write:10m}")
+    private Duration expireAfterWrite;
+
+    @Value("${network-geo-data.cache.generation-refresh:5s}")
+    private Duration generationRefresh;
+
+    @Autowired
+    private SubstationCustomRepository substationCustomRepository;
+
+    @Autowired
+    private LineCustomRepository lineCustomRepository;
+
+    @Autowired
+    private GeoDataGenerationRepository generationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AsyncLoadingCache<Country, Map<String, SubstationGeoData>> substations;
+
+    private AsyncLoadingCache<Country, Map<String, LineGeoData>> lines;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile UUID generation;
+
+    private final AtomicLong nextGenerationCheck = new AtomicLong(System.nanoTime());
+
+    private LoadingCache<UUID, UUID> networkGenerations;
+
+    @PostConstruct
+    void init() {
+        substations = Caffeine.newBuilder()
+                .maximumWeight(maxSubstations)
+                .<Country, Map<String, SubstationGeoData>>weigher((country, countrySubstations) -> countrySubstations.size())
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync((country, executor) -> substationCustomRepository.getSubstationsAsync(country).thenApply(Collections::unmodifiableMap));
+        lines = Caffeine.newBuilder()
+                .maximumWeight(maxLineCoordinates)
+                .<Country, Map<String, LineGeoData>>weigher((country, countryLines) -> countryLines.values().stream().mapToInt(l -> l.getCoordinates().size() + 1).sum())
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync((country, executor) -> lineCustomRepository.getLinesAsync(country).thenApply(Collections::unmodifiableMap));
+        CaffeineCacheMetrics.monitor(meterRegistry, substations, "geoDataSubstations");
+        CaffeineCacheMetrics.monitor(meterRegistry, lines, "geoDataLines");
+        generation = generationRepository.getGeneration(GeoDataGenerationRepository.GEO_DATA);
+        networkGenerations = Caffeine.newBuilder()
+                .maximumSize(MAX_NETWORK_GENERATIONS)
+                .expireAfterWrite(generationRefresh)
+                .build(networkUuid -> generationRepository.getGeneration(networkUuid.toString()));
+    }
+
+    /**
+     * Invalidates everything when the generation of the stored geo data is not the last one seen,
+     * the geo data having been saved through another instance of the server.
+     */
+    private synchronized void checkGeneration(UUID storedGeneration) {
+        if (!storedGeneration.equals(generation)) {
+            invalidateAll();
+            generation = storedGeneration;
+        }
+    }
+
+    /**
+     * Returns the generation of the stored geo data the cache is consistent with. The stored generation is read
+     * by a single thread at a time, at most every refresh interval, the other threads using the last one seen.
+     * A failure to read it is only logged, the cache then relying on its expiration.
+     */
+    public UUID getGeneration() {
+        long now = System.nanoTime();
+        long nextCheck = nextGenerationCheck.get();
+        if (now - nextCheck >= 0 && nextGenerationCheck.compareAndSet(nextCheck, now + generationRefresh.toNanos())) {
+            try {
+                checkGeneration(generationRepository.getGeneration(GeoDataGenerationRepository.GEO_DATA));
+            } catch (DriverException e) {
+                LOGGER.warn("Generation of the geo data not read, geo data saved through another instance may be seen late: {}", e.getMessage());
+            }
+        }
+        return generation;
+    }
+
+    /**
+     * Starts a new generation of the stored geo data, to be called once geo data have been saved, so that all the
+     * instances of the server invalidate what they have cached. The geo data being already saved, a failure is only
+     * logged: the other instances then see them once their cache entries expire.
+     */
+    public void newGeneration() {
+        try {
+            checkGeneration(generationRepository.newGeneration(GeoDataGenerationRepository.GEO_DATA));
+        } catch (DriverException e) {
+            LOGGER.error("New generation of the geo data not saved, other instances may serve obsolete geo data until their cache expires: {}",
+                    e.getMessage());
+            invalidateAll();
+        }
+    }
+
+    private static <V> Map<String, V> merge(CompletableFuture<Map<Country, Map<String, V>>> byCountry) {
+        Map<String, V> merged = new HashMap<>();
+        byCountry.join().values().forEach(merged::putAll);
+        return merged;
+    }
+
+    /**
+     * Returns the substations stored in the DB for the given countries, reading only the missing countries.
+     */
+    public Map<String, SubstationGeoData> getSubstations(Set<Country> countries) {
+        getGeneration();
+        return merge(substations.getAll(countries));
+    }
+
+    /**
+     * Returns the lines stored in the DB for the given countries, reading only the missing countries.
+     */
+    public Map<String, LineGeoData> getLines(Set<Country> countries) {
+        getGeneration();
+        return merge(lines.getAll(countries));
+    }
+
+    /**
+     * Starts reading the substations stored in the DB for the given countries that are missing in the cache,
+     * without waiting for them, so that the reads overlap with other work like the loading of a network.
+     */
+    public void prefetchSubstations(Set<Country> countries) {
+        getGeneration();
+        substations.getAll(countries);
+    }
+
+    /**
+     * Starts reading the lines stored in the DB for the given countries that are missing in the cache,
+     * without waiting for them.
+     */
+    public void prefetchLines(Set<Country> countries) {
+        getGeneration();
+        lines.getAll(countries);
+    }
+
+    /**
+     * Version of the stored geo data, incremented each time some of them are invalidated, here or, once its
+     * generation has been read again, through another instance. Results computed from the geo data can be cached
+     * with this version.
+     */
+    public long getVersion() {
+        getGeneration();
+        return version.get();
+    }
+
+    /**
+     * Returns the generation of a network, read again at most every refresh interval. Unlike the generation of the
+     * geo data, it is needed to identify the results of the network, so a failure to read it is not ignored.
+     */
+    public UUID getNetworkGeneration(UUID networkUuid) {
+        return networkGenerations.get(networkUuid);
+    }
+
+    /**
+     * Starts a new generation of a network, to be called when the network has been modified, so that all the
+     * instances of the server compute its results again.
+     */
+    public void newNetworkGeneration(UUID networkUuid) {
+        networkGenerations.put(networkUuid, generationRepository.newGeneration(networkUuid.toString()));
+    }
+
+    public void invalidateSubstations(Collection<Country> countries) {
+        substations.synchronous().invalidateAll(countries);
+        version.incrementAndGet();
+    }
+
+    public void invalidateLines(Collection<Country> countries) {
+        lines.synchronous().invalidateAll(countries);
+        version.incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        substations.synchronous().invalidateAll();
+        lines.synchronous().invalidateAll();
+        version.incrementAndGet();
+    }
+
+    public CacheStats getSubstationsStats() {
+        return substations.synchronous().stats();
+    }
+
+    public CacheStats getLinesStats() {
+        return lines.synchronous().stats();
+    }
+}
@@ -6,26 +6,42 @@
  */
 package org.gridsuite.geodata.server;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gridsuite.geodata.server.dto.ImportSummary;
 import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.NetworkGeoData;
 import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.gridsuite.geodata.server.repositories.BulkWriteResult;
 import com.powsybl.iidm.network.Country;
-import com.powsybl.iidm.network.Network;
 import com.powsybl.network.store.client.NetworkStoreService;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
-import java.util.UUID;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author Chamseddine Benhamed <chamseddine.benhamed at rte-france.com>
@@ -38,49 +54,389 @@ public class GeoDataController {
 
     static final String API_VERSION = "v1";
 
+    /**
+     * Number of elements of a newline delimited JSON response written and flushed together.
+     */
+    static final int NDJSON_BATCH_SIZE = 1000;
+
     @Autowired
     private GeoDataService geoDataService;
 
     @Autowired
-    private NetworkStoreService networkStoreService;
+    private GeoDataImporter geoDataImporter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GeoDataMetrics metrics;
+
+    @Autowired
+    private CompressedResponseCache compressedResponseCache;
+
+    /**
+     * Writes the elements as a JSON array, each element being serialized as soon as the stream provides it,
+     * so that the whole list is never built and the client receives the first elements early.
+     */
+    private <T> StreamingResponseBody streamJsonArray(String resource, Stream<T> elements) {
+        return timed(resource, "json", out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                 Stream<T> toWrite = elements) {
+                generator.writeStartArray();
+                for (Iterator<T> it = toWrite.iterator(); it.hasNext();) {
+                    generator.writeObject(it.next());
+                }
+                generator.writeEndArray();
+            }
+        });
+    }
+
+    /**
+     * Times the writing of a response body, which includes the assembly of the elements that are lazily computed.
+     */
+    private StreamingResponseBody timed(String resource, String format, StreamingResponseBody body) {
+        Timer timer = metrics.serialization(resource, format);
+        return out -> {
+            Timer.Sample sample = Timer.start();
+            try {
+                body.writeTo(out);
+            } finally {
+                sample.stop(timer);
+            }
+        };
+    }
+
+    /**
+     * Writes the elements in the compact binary format of {@link GeoDataBinaryWriter}, element by element.
+     */
+    private <T> StreamingResponseBody streamBinary(String resource, Stream<T> elements, Function<OutputStream, GeoDataBinaryWriter> writerFactory,
+                                                   GeoDataBinaryWriter.ElementWriter<T> write) {
+        return timed(resource, "binary", out -> {
+            try (GeoDataBinaryWriter writer = writerFactory.apply(out);
+                 Stream<T> toWrite = elements) {
+                for (Iterator<T> it = toWrite.iterator(); it.hasNext();) {
+                    write.write(writer, it.next());
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes the elements emitted by a flux as newline delimited JSON, by batches: the elements of a batch are
+     * written together and flushed once, instead of one chunk per element. The subscription to the flux is
+     * cancelled when the writing fails.
+     */
+    private <T> StreamingResponseBody streamNdjson(String resource, Flux<T> elements) {
+        return timed(resource, "ndjson", out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                 Stream<List<T>> batches = elements.buffer(NDJSON_BATCH_SIZE).toStream()) {
+                for (Iterator<List<T>> it = batches.iterator(); it.hasNext();) {
+                    for (T element : it.next()) {
+                        generator.writeObject(element);
+                        generator.writeRaw('\n');
+                    }
+                    generator.flush();
+                }
+            }
+        });
+    }
+
+    /**
+     * Responds with a streamed body, gzip compressed when the client accepts it. A compressed body is taken from
+     * the compressed responses cache when a previous request has already computed it, the body supplier being
+     * only called on a cache miss.
+     */
+    private ResponseEntity<StreamingResponseBody> respond(String eTag, MediaType contentType, boolean gzip, Supplier<StreamingResponseBody> body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(body.get());
+        }
+        response.header(HttpHeaders.CONTENT_ENCODING, CompressedResponseCache.GZIP);
+        byte[] compressed = compressedResponseCache.get(eTag);
+        if (compressed != null) {
+            return response.contentLength(compressed.length).body(out -> out.write(compressed));
+        }
+        StreamingResponseBody uncompressed = body.get();
+        return response.body(out -> compressedResponseCache.writeCompressed(eTag, out, uncompressed));
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(CompressedResponseCache.GZIP)) {
+                return parts.length < 2 || !parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The binary format is only sent when the client explicitly prefers it to JSON, JSON being the default.
+     */
+    static boolean acceptsBinary(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return false;
+        }
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.isWildcardType() || mediaType.isWildcardSubtype() || mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (GeoDataBinaryWriter.MEDIA_TYPE.isCompatibleWith(mediaType)) {
+                return true;
+            }
+            if (MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Entity tag of a response, from the request parameters, including the format of the response, and from the
+     * generations of the stored geo data and of the network. The generations being stored, the tag is the same for
+     * all the instances of the server, and a client can reuse its copy of a response as long as no geo data are
+     * saved and the network is not declared modified.
+     */
+    private String eTag(String resource, UUID networkUuid, Set<Country> countries, Object... parameters) {
+        StringBuilder tag = new StringBuilder(resource)
+                .append('|').append(networkUuid)
+                .append('|').append(new TreeSet<>(countries));
+        for (Object parameter : parameters) {
+            tag.append('|').append(parameter);
+        }
+        tag.append('|').append(geoDataService.getGeoDataVersion(networkUuid));
+        return UUID.nameUUIDFromBytes(tag.toString().getBytes(StandardCharsets.UTF_8)).toString();
+    }
 
     private static Set<Country> toCountrySet(@RequestParam(required = false) List<String> countries) {
         return countries != null ? countries.stream().map(Country::valueOf).collect(Collectors.toSet()) : Collections.emptySet();
     }
 
-    @GetMapping(value = "/substations", produces = MediaType.APPLICATION_JSON_VALUE)
-    @ApiOperation(value = "Get substations geographical data", response = List.class)
-    @ApiResponses(value = {@ApiResponse(code = 200, message = "Substations geographical data")})
-    public ResponseEntity<List<SubstationGeoData>> getSubstations(@RequestParam UUID networkUuid,
-                                                                  @RequestParam(required = false) List<String> countries) {
+    private static BoundingBox toBoundingBox(List<Double> bbox) {
+        try {
+            return bbox != null ? BoundingBox.of(bbox) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Zoom level of the simplification of the lines, from a zoom level or from a tolerance in degrees.
+     */
+    private static Integer toZoom(Integer zoom, Double tolerance) {
+        if (zoom != null && tolerance != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Either a zoom or a tolerance is expected, not both");
+        }
+        if (zoom != null) {
+            if (zoom < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Zoom must not be negative");
+            }
+            return Math.min(zoom, LineSimplifier.MAX_ZOOM);
+        }
+        try {
+            return tolerance != null ? LineSimplifier.getZoom(tolerance) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping(value = "/substations", produces = {MediaType.APPLICATION_JSON_VALUE, GeoDataBinaryWriter.MEDIA_TYPE_VALUE})
+    @ApiOperation(value = "Get substations geographical data, as JSON or in the compact binary format depending on the Accept header", response = List.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Substations geographical data"),
+        @ApiResponse(code = 304, message = "Not modified since the version given in If-None-Match")})
+    public ResponseEntity<StreamingResponseBody> getSubstations(@RequestParam UUID networkUuid,
+                                                                @RequestParam(required = false) List<String> countries,
+                                                                @ApiParam(value = "Bounding box as minLat,minLon,maxLat,maxLon") @RequestParam(required = false) List<Double> bbox,
+                                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                                WebRequest request) {
+        Set<Country> countrySet = toCountrySet(countries);
+        BoundingBox boundingBox = toBoundingBox(bbox);
+        boolean binary = acceptsBinary(accept);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String eTag = eTag("substations", networkUuid, countrySet, boundingBox, binary, gzip);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return respond(eTag, binary ? GeoDataBinaryWriter.MEDIA_TYPE : MediaType.APPLICATION_JSON, gzip, () -> {
+            List<SubstationGeoData> substations = boundingBox != null
+                    ? geoDataService.getSubstations(networkUuid, countrySet, boundingBox)
+                    : geoDataService.getSubstations(networkUuid, countrySet);
+            return binary
+                    ? streamBinary("substations", substations.stream(), GeoDataBinaryWriter::forSubstations, GeoDataBinaryWriter::write)
+                    : streamJsonArray("substations", substations.stream());
+        });
+    }
+
+    @GetMapping(value = "/lines", produces = {MediaType.APPLICATION_JSON_VALUE, GeoDataBinaryWriter.MEDIA_TYPE_VALUE})
+    @ApiOperation(value = "Get lines geographical data, as JSON or in the compact binary format depending on the Accept header, "
+            + "their geometries being simplified when a zoom level or a tolerance is given", response = List.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Lines geographical data"),
+        @ApiResponse(code = 304, message = "Not modified since the version given in If-None-Match")})
+    public ResponseEntity<StreamingResponseBody> getLines(@RequestParam UUID networkUuid,
+                                                          @RequestParam(required = false) List<String> countries,
+                                                          @ApiParam(value = "Bounding box as minLat,minLon,maxLat,maxLon") @RequestParam(required = false) List<Double> bbox,
+                                                          @ApiParam(value = "Zoom level of a web map the geometries are simplified for") @RequestParam(required = false) Integer zoom,
+                                                          @ApiParam(value = "Tolerance in degrees of the simplification of the geometries") @RequestParam(required = false) Double tolerance,
+                                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                          WebRequest request) {
+        Set<Country> countrySet = toCountrySet(countries);
+        BoundingBox boundingBox = toBoundingBox(bbox);
+        Integer simplificationZoom = toZoom(zoom, tolerance);
+        boolean binary = acceptsBinary(accept);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String eTag = eTag("lines", networkUuid, countrySet, boundingBox, simplificationZoom, binary, gzip);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return respond(eTag, binary ? GeoDataBinaryWriter.MEDIA_TYPE : MediaType.APPLICATION_JSON, gzip, () -> {
+            Stream<LineGeoData> lines;
+            if (simplificationZoom != null) {
+                lines = geoDataService.streamLines(networkUuid, countrySet, simplificationZoom, boundingBox);
+            } else if (boundingBox != null) {
+                lines = geoDataService.streamLines(networkUuid, countrySet, boundingBox);
+            } else {
+                lines = geoDataService.streamLines(networkUuid, countrySet);
+            }
+            return binary
+                    ? streamBinary("lines", lines, GeoDataBinaryWriter::forLines, GeoDataBinaryWriter::write)
+                    : streamJsonArray("lines", lines);
+        });
+    }
+
+    @GetMapping(value = "/substations", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Get substations geographical data as newline delimited JSON, computed without holding a request thread "
+            + "and sent by batches", response = List.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Substations geographical data"),
+        @ApiResponse(code = 304, message = "Not modified since the version given in If-None-Match")})
+    public ResponseEntity<StreamingResponseBody> getSubstationsFlux(@RequestParam UUID networkUuid,
+                                                                    @RequestParam(required = false) List<String> countries,
+                                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                                    WebRequest request) {
+        Set<Country> countrySet = toCountrySet(countries);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String eTag = eTag("substations", networkUuid, countrySet, MediaType.APPLICATION_NDJSON, gzip);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return respond(eTag, MediaType.APPLICATION_NDJSON, gzip,
+            () -> streamNdjson("substations", geoDataService.getSubstationsFlux(networkUuid, countrySet)));
+    }
+
+    @GetMapping(value = "/lines", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Get lines geographical data as newline delimited JSON, assembled without holding a request thread "
+            + "and sent by batches as they are assembled", response = List.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Lines geographical data"),
+        @ApiResponse(code = 304, message = "Not modified since the version given in If-None-Match")})
+    public ResponseEntity<StreamingResponseBody> getLinesFlux(@RequestParam UUID networkUuid,
+                                                              @RequestParam(required = false) List<String> countries,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                              WebRequest request) {
         Set<Country> countrySet = toCountrySet(countries);
-        Network network = networkStoreService.getNetwork(networkUuid);
-        List<SubstationGeoData> substations = geoDataService.getSubstations(network, countrySet);
-        return ResponseEntity.ok().body(substations);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String eTag = eTag("lines", networkUuid, countrySet, MediaType.APPLICATION_NDJSON, gzip);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return respond(eTag, MediaType.APPLICATION_NDJSON, gzip,
+            () -> streamNdjson("lines", geoDataService.getLinesFlux(networkUuid, countrySet)));
     }
 
-    @GetMapping(value = "/lines", produces = MediaType.APPLICATION_JSON_VALUE)
-    @ApiOperation(value = "Get lines geographical data", response = List.class)
-    @ApiResponses(value = {@ApiResponse(code = 200, message = "Lines geographical data")})
-    public ResponseEntity<List<LineGeoData>> getLines(@RequestParam UUID networkUuid,
-                                                      @RequestParam(required = false) List<String> countries) {
+    @GetMapping(value = "/tiles/{z}/{x}/{y}.mvt", produces = VectorTileEncoder.MEDIA_TYPE_VALUE)
+    @ApiOperation(value = "Get a Mapbox vector tile of the substations and the lines, the lines being simplified for the zoom level")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Vector tile"),
+        @ApiResponse(code = 204, message = "No substation nor line in the tile"),
+        @ApiResponse(code = 304, message = "Not modified since the version given in If-None-Match"),
+        @ApiResponse(code = 400, message = "Invalid tile coordinates")})
+    public ResponseEntity<byte[]> getTile(@PathVariable int z, @PathVariable int x, @PathVariable int y,
+                                          @RequestParam UUID networkUuid,
+                                          WebRequest request) {
+        if (!VectorTileEncoder.isValid(z, x, y)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid tile " + z + "/" + x + "/" + y);
+        }
+        if (request.checkNotModified(eTag("tiles", networkUuid, Collections.emptySet(), z, x, y))) {
+            return null;
+        }
+        byte[] tile = geoDataService.getTile(networkUuid, z, x, y);
+        return tile.length == 0
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.ok().contentType(VectorTileEncoder.MEDIA_TYPE).body(tile);
+    }
+
+    @GetMapping(value = "/geo", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get substations and lines geographical data", response = NetworkGeoData.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Substations and lines geographical data"),
+        @ApiResponse(code = 304, message = "Not modified since the version given in If-None-Match")})
+    public ResponseEntity<NetworkGeoData> getNetworkGeoData(@RequestParam UUID networkUuid,
+                                                            @RequestParam(required = false) List<String> countries,
+                                                            WebRequest request) {
         Set<Country> countrySet = toCountrySet(countries);
-        Network network = networkStoreService.getNetwork(networkUuid);
-        List<LineGeoData> lines = geoDataService.getLines(network, countrySet);
-        return ResponseEntity.ok().body(lines);
+        if (request.checkNotModified(eTag("geo", networkUuid, countrySet))) {
+            return null;
+        }
+        NetworkGeoData networkGeoData = geoDataService.getNetworkGeoData(networkUuid, countrySet);
+        return ResponseEntity.ok().body(networkGeoData);
     }
 
     @PostMapping(value = "/substations")
     @ApiOperation(value = "Save substations geographical data")
-    @ApiResponses(value = {@ApiResponse(code = 200, message = "Substations geographical data have been correctly saved")})
-    public void saveSubstations(@RequestBody List<SubstationGeoData> substationGeoData) {
-        geoDataService.saveSubstations(substationGeoData);
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Substations geographical data have been correctly saved"),
+        @ApiResponse(code = 500, message = "Some batches of substations geographical data could not be saved")})
+    public ResponseEntity<BulkWriteResult> saveSubstations(@RequestBody List<SubstationGeoData> substationGeoData) {
+        return toResponse(geoDataService.saveSubstations(substationGeoData));
     }
 
     @PostMapping(value = "/lines")
     @ApiOperation(value = "Save lines geographical data")
-    @ApiResponses(value = {@ApiResponse(code = 200, message = "Lines geographical data have been correctly saved")})
-    public void saveLines(@RequestBody List<LineGeoData> linesGeoData) {
-        geoDataService.saveLines(linesGeoData);
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Lines geographical data have been correctly saved"),
+        @ApiResponse(code = 500, message = "Some batches of lines geographical data could not be saved")})
+    public ResponseEntity<BulkWriteResult> saveLines(@RequestBody List<LineGeoData> linesGeoData) {
+        return toResponse(geoDataService.saveLines(linesGeoData));
+    }
+
+    @DeleteMapping(value = "/snapshots")
+    @ApiOperation(value = "Drop the geographical data computed for a network, to be called when the network has been modified")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Geographical data computed for the network have been dropped")})
+    public ResponseEntity<Void> invalidateNetwork(@RequestParam UUID networkUuid) {
+        geoDataService.invalidateNetwork(networkUuid);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping(value = "/substations/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, GeoDataImporter.TEXT_CSV_VALUE})
+    @ApiOperation(value = "Import substations geographical data streamed as newline delimited JSON or CSV")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Substations geographical data have been imported, invalid records being skipped"),
+        @ApiResponse(code = 500, message = "Some batches of substations geographical data could not be saved")})
+    public ResponseEntity<ImportSummary> importSubstations(InputStream body,
+                                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) throws IOException {
+        return toResponse(geoDataImporter.importSubstations(body, contentType));
+    }
+
+    @PostMapping(value = "/lines/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, GeoDataImporter.TEXT_CSV_VALUE})
+    @ApiOperation(value = "Import lines geographical data streamed as newline delimited JSON or CSV")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Lines geographical data have been imported, invalid records being skipped"),
+        @ApiResponse(code = 500, message = "Some batches of lines geographical data could not be saved")})
+    public ResponseEntity<ImportSummary> importLines(InputStream body,
+                                                     @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) throws IOException {
+        return toResponse(geoDataImporter.importLines(body, contentType));
+    }
+
+    private static ResponseEntity<ImportSummary> toResponse(ImportSummary summary) {
+        return summary.getFailedBatches() > 0
+                ? ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(summary)
+                : ResponseEntity.ok().body(summary);
+    }
+
+    private static ResponseEntity<BulkWriteResult> toResponse(BulkWriteResult result) {
+        return result.hasFailures()
+                ? ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result)
+                : ResponseEntity.ok().body(result);
     }
 }
@@ -0,0 +1,358 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.powsybl.iidm.network.Country;
+import org.apache.commons.lang3.time.StopWatch;
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.ImportSummary;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.gridsuite.geodata.server.repositories.BulkWriteResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Imports substations or lines geographical data from a stream of newline delimited JSON or CSV, record by record.
+ * Records are saved by chunks, the next chunk being read only once the previous one has been written, so that
+ * the memory used does not depend on the size of the stream and a client sending faster than the DB can write
+ * is slowed down by the transport flow control.
+ * <p>
+ * CSV substations have the columns {@code id,country,lat,lon}. CSV lines have one row per coordinate with the columns
+ * {@code id,country1,country2,substationStart,substationEnd,lat,lon}, the consecutive rows of a same id being the
+ * coordinates of one line (a line without coordinates being a single row with empty lat and lon). A first row starting
+ * with {@code id} is a header and is skipped.
+ *
+ * @author agent <agent at local>
+ */
+@Component
+public class GeoDataImporter {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    public static final MediaType TEXT_CSV = MediaType.valueOf(TEXT_CSV_VALUE);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeoDataImporter.class);
+
+    private static final int MAX_ERRORS = 100;
+
+    @Value("${network-geo-data.import.substations-per-chunk:10000}")
+    private int substationsPerChunk;
+
+    @Value("${network-geo-data.import.line-coordinates-per-chunk:100000}")
+    private int lineCoordinatesPerChunk;
+
+    @Autowired
+    private GeoDataService geoDataService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Records of the current chunk and counts of the whole import.
+     */
+    private static final class Import<T> {
+
+        private final Function<List<T>, BulkWriteResult> save;
+
+        private final int maxChunkWeight;
+
+        private final StopWatch stopWatch = StopWatch.createStarted();
+
+        private List<T> chunk = new ArrayList<>();
+
+        private int chunkWeight;
+
+        private long records;
+
+        private long invalidRecords;
+
+        private BulkWriteResult written = new BulkWriteResult(0, 0, 0, 0, 0, new ArrayList<>());
+
+        private final List<String> errors = new ArrayList<>();
+
+        private Import(Function<List<T>, BulkWriteResult> save, int maxChunkWeight) {
+            this.save = save;
+            this.maxChunkWeight = maxChunkWeight;
+        }
+
+        void add(T element, int weight) {
+            records++;
+            chunk.add(element);
+            chunkWeight += weight;
+            if (chunkWeight >= maxChunkWeight) {
+                flush();
+            }
+        }
+
+        void invalid(long lineNumber, String message) {
+            records++;
+            invalidRecords++;
+            error("Line " + lineNumber + ": " + message);
+        }
+
+        private void error(String error) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        private void flush() {
+            if (!chunk.isEmpty()) {
+                BulkWriteResult result = save.apply(chunk);
+                result.getFailures().forEach(this::error);
+                written = written.merge(result);
+                chunk = new ArrayList<>();
+                chunkWeight = 0;
+            }
+        }
+
+        ImportSummary finish() {
+            flush();
+            ImportSummary summary = ImportSummary.builder()
+                    .records(records)
+                    .invalidRecords(invalidRecords)
+                    .rows(written.getRows())
+                    .failedRows(written.getFailedRows())
+                    .batches(written.getBatches())
+                    .failedBatches(written.getFailedBatches())
+                    .elapsedMillis(stopWatch.getTime(TimeUnit.MILLISECONDS))
+                    .errors(errors)
+                    .build();
+            LOGGER.info("Import done: {}", summary);
+            return summary;
+        }
+    }
+
+    private static boolean isNdjson(MediaType contentType) {
+        return contentType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType);
+    }
+
+    private static BufferedReader newReader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Splits a CSV row, fields possibly being double quoted with doubled quotes inside.
+     */
+    static List<String> splitCsv(String row) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static boolean isHeader(long lineNumber, List<String> fields) {
+        return lineNumber == 1 && fields.get(0).equalsIgnoreCase("id");
+    }
+
+    private static String emptyToNull(String s) {
+        return s.isEmpty() ? null : s;
+    }
+
+    private static String validate(SubstationGeoData substation) {
+        if (substation.getId() == null || substation.getCountry() == null || substation.getCoordinate() == null) {
+            return "substation id, country and coordinate are mandatory";
+        }
+        return null;
+    }
+
+    private static String validate(LineGeoData line) {
+        if (line.getId() == null || line.getCountry1() == null || line.getCountry2() == null) {
+            return "line id and countries are mandatory";
+        }
+        return null;
+    }
+
+    /**
+     * Finishes an import, a new generation of the geo data being started once for all the saved chunks.
+     */
+    private ImportSummary finish(Import<?> geoDataImport) {
+        ImportSummary summary = geoDataImport.finish();
+        if (summary.getRows() + summary.getFailedRows() > 0) {
+            geoDataService.newGeneration();
+        }
+        return summary;
+    }
+
+    public ImportSummary importSubstations(InputStream in, MediaType contentType) throws IOException {
+        Import<SubstationGeoData> substationsImport = new Import<>(chunk -> geoDataService.saveSubstations(chunk, false), substationsPerChunk);
+        ObjectReader jsonReader = objectMapper.readerFor(SubstationGeoData.class);
+        boolean ndjson = isNdjson(contentType);
+        try (BufferedReader reader = newReader(in)) {
+            long lineNumber = 0;
+            String row;
+            while ((row = reader.readLine()) != null) {
+                lineNumber++;
+                if (row.isBlank()) {
+                    continue;
+                }
+                try {
+                    SubstationGeoData substation;
+                    if (ndjson) {
+                        substation = jsonReader.readValue(row);
+                    } else {
+                        List<String> fields = splitCsv(row);
+                        if (isHeader(lineNumber, fields)) {
+                            continue;
+                        }
+                        if (fields.size() != 4) {
+                            throw new IllegalArgumentException("4 fields expected, " + fields.size() + " found");
+                        }
+                        substation = new SubstationGeoData(fields.get(0), Country.valueOf(fields.get(1)),
+                                new Coordinate(Double.parseDouble(fields.get(2)), Double.parseDouble(fields.get(3))));
+                    }
+                    String error = validate(substation);
+                    if (error != null) {
+                        substationsImport.invalid(lineNumber, error);
+                    } else {
+                        substationsImport.add(substation, 1);
+                    }
+                } catch (IOException | IllegalArgumentException e) {
+                    substationsImport.invalid(lineNumber, e.getMessage());
+                }
+            }
+        }
+        return finish(substationsImport);
+    }
+
+    public ImportSummary importLines(InputStream in, MediaType contentType) throws IOException {
+        Import<LineGeoData> linesImport = new Import<>(chunk -> geoDataService.saveLines(chunk, false), lineCoordinatesPerChunk);
+        try (BufferedReader reader = newReader(in)) {
+            if (isNdjson(contentType)) {
+                readNdjsonLines(reader, linesImport);
+            } else {
+                readCsvLines(reader, linesImport);
+            }
+        }
+        return finish(linesImport);
+    }
+
+    private static void addLine(Import<LineGeoData> linesImport, long lineNumber, LineGeoData line) {
+        String error = validate(line);
+        if (error != null) {
+            linesImport.invalid(lineNumber, error);
+        } else {
+            linesImport.add(line, line.getCoordinates().size() + 1);
+        }
+    }
+
+    private void readNdjsonLines(BufferedReader reader, Import<LineGeoData> linesImport) throws IOException {
+        ObjectReader jsonReader = objectMapper.readerFor(LineGeoData.class);
+        long lineNumber = 0;
+        String row;
+        while ((row = reader.readLine()) != null) {
+            lineNumber++;
+            if (row.isBlank()) {
+                continue;
+            }
+            try {
+                LineGeoData line = jsonReader.readValue(row);
+                if (line.getCoordinates() == null) {
+                    line = new LineGeoData(line.getId(), line.getCountry1(), line.getCountry2(), line.getSubstationStart(), line.getSubstationEnd(), new ArrayList<>());
+                }
+                addLine(linesImport, lineNumber, line);
+            } catch (IOException | IllegalArgumentException e) {
+                linesImport.invalid(lineNumber, e.getMessage());
+            }
+        }
+    }
+
+    private static void readCsvLines(BufferedReader reader, Import<LineGeoData> linesImport) throws IOException {
+        LineGeoData current = null;
+        long currentLineNumber = 0;
+        boolean currentInvalid = false;
+        long lineNumber = 0;
+        String row;
+        while ((row = reader.readLine()) != null) {
+            lineNumber++;
+            if (row.isBlank()) {
+                continue;
+            }
+            List<String> fields = splitCsv(row);
+            if (isHeader(lineNumber, fields)) {
+                continue;
+            }
+            String id = fields.get(0);
+            if (current == null || !current.getId().equals(id)) {
+                if (current != null && !currentInvalid) {
+                    addLine(linesImport, currentLineNumber, current);
+                }
+                currentLineNumber = lineNumber;
+                currentInvalid = false;
+                current = null;
+                try {
+                    if (fields.size() != 7) {
+                        throw new IllegalArgumentException("7 fields expected, " + fields.size() + " found");
+                    }
+                    current = new LineGeoData(id, Country.valueOf(fields.get(1)), Country.valueOf(fields.get(2)),
+                            emptyToNull(fields.get(3)), emptyToNull(fields.get(4)), new ArrayList<>());
+                } catch (IllegalArgumentException e) {
+                    linesImport.invalid(lineNumber, e.getMessage());
+                    current = new LineGeoData(id, null, null, null, null, new ArrayList<>());
+                    currentInvalid = true;
+                    continue;
+                }
+            }
+            if (currentInvalid) {
+                continue;
+            }
+            try {
+                if (fields.size() != 7) {
+                    throw new IllegalArgumentException("7 fields expected, " + fields.size() + " found");
+                }
+                if (!fields.get(5).isEmpty() || !fields.get(6).isEmpty()) {
+                    current.getCoordinates().add(new Coordinate(Double.parseDouble(fields.get(5)), Double.parseDouble(fields.get(6))));
+                }
+            } catch (IllegalArgumentException e) {
+                // a line with a wrong coordinate is rejected as a whole
+                linesImport.invalid(lineNumber, e.getMessage());
+                currentInvalid = true;
+            }
+        }
+        if (current != null && !currentInvalid) {
+            addLine(linesImport, currentLineNumber, current);
+        }
+    }
+}
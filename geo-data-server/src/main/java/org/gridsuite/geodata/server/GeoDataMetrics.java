@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Timers of the stages of the geo data requests and counters of the substations positions, published with
+ * percentile histograms so that latency percentiles can be computed by the monitoring system.
+ *
+ * @author agent <agent at local>
+ */
+@Component
+public class GeoDataMetrics {
+
+    static final String DB_READ = "geodata.db.read";
+
+    static final String NETWORK_FETCH = "geodata.network.fetch";
+
+    static final String NEIGHBOURS_BUILD = "geodata.neighbours.build";
+
+    static final String ESTIMATION_STEP = "geodata.estimation.step";
+
+    static final String ESTIMATION_ITERATION = "geodata.estimation.iteration";
+
+    static final String LINES_ASSEMBLY = "geodata.lines.assembly";
+
+    static final String SERIALIZATION = "geodata.serialization";
+
+    static final String SUBSTATIONS = "geodata.substations";
+
+    static final String SNAPSHOTS = "geodata.snapshots";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer substationsDbRead;
+
+    private final Timer linesDbRead;
+
+    private final Timer networkFetch;
+
+    private final Timer neighboursBuild;
+
+    private final Map<GeoDataService.Step, Timer> estimationSteps = new EnumMap<>(GeoDataService.Step.class);
+
+    private final Map<GeoDataService.Step, Timer> estimationIterations = new EnumMap<>(GeoDataService.Step.class);
+
+    private final Timer linesAssembly;
+
+    private final Counter substationsRead;
+
+    private final Counter substationsEstimated;
+
+    private final Counter substationsUnknown;
+
+    public GeoDataMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        substationsDbRead = timer(DB_READ, "Read of the stored geo data", "type", "substations");
+        linesDbRead = timer(DB_READ, "Read of the stored geo data", "type", "lines");
+        networkFetch = timer(NETWORK_FETCH, "Fetch of a network from the network store");
+        neighboursBuild = timer(NEIGHBOURS_BUILD, "Build of the substations neighbours graph");
+        for (GeoDataService.Step step : GeoDataService.Step.values()) {
+            estimationSteps.put(step, timer(ESTIMATION_STEP, "Estimation step of the missing substations positions", "step", step.name()));
+            estimationIterations.put(step, timer(ESTIMATION_ITERATION, "Iteration of an estimation step", "step", step.name()));
+        }
+        linesAssembly = timer(LINES_ASSEMBLY, "Assembly of the coordinates of the lines of a result with their end substations");
+        substationsRead = counter("read", "Substations positions found in the stored geo data");
+        substationsEstimated = counter("estimated", "Substations positions estimated from their neighbours");
+        substationsUnknown = counter("unknown", "Substations positions neither stored nor estimated");
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter counter(String position, String description) {
+        return Counter.builder(SUBSTATIONS)
+                .description(description)
+                .tag("position", position)
+                .register(meterRegistry);
+    }
+
+    Timer substationsDbRead() {
+        return substationsDbRead;
+    }
+
+    Timer linesDbRead() {
+        return linesDbRead;
+    }
+
+    Timer networkFetch() {
+        return networkFetch;
+    }
+
+    Timer neighboursBuild() {
+        return neighboursBuild;
+    }
+
+    Timer estimationStep(GeoDataService.Step step) {
+        return estimationSteps.get(step);
+    }
+
+    Timer estimationIteration(GeoDataService.Step step) {
+        return estimationIterations.get(step);
+    }
+
+    Timer linesAssembly() {
+        return linesAssembly;
+    }
+
+    /**
+     * Serialization of a response, streamed element by element.
+     */
+    Timer serialization(String resource, String format) {
+        return timer(SERIALIZATION, "Serialization of a response", "resource", resource, "format", format);
+    }
+
+    /**
+     * Read of a stored snapshot, found or not.
+     */
+    Counter snapshotRead(String resource, boolean found) {
+        return Counter.builder(SNAPSHOTS)
+                .description("Reads of the stored snapshots of the computed geo data")
+                .tags("resource", resource, "result", found ? "hit" : "miss")
+                .register(meterRegistry);
+    }
+
+    Counter substationsRead() {
+        return substationsRead;
+    }
+
+    Counter substationsEstimated() {
+        return substationsEstimated;
+    }
+
+    Counter substationsUnknown() {
+        return substationsUnknown;
+    }
+}
@@ -6,24 +6,38 @@
  */
 package org.gridsuite.geodata.server;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.powsybl.network.store.client.NetworkStoreService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import org.gridsuite.geodata.extensions.Coordinate;
-import org.gridsuite.geodata.extensions.SubstationPosition;
 import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.NetworkGeoData;
 import org.gridsuite.geodata.server.dto.SubstationGeoData;
 import org.gridsuite.geodata.server.repositories.*;
 import com.powsybl.iidm.network.*;
-import org.apache.commons.lang3.time.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import javax.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author Chamseddine Benhamed <chamseddine.benhamed at rte-france.com>
@@ -33,31 +47,160 @@ public class GeoDataService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GeoDataService.class);
 
-    @Value("${network-geo-data.iterations:5}")
-    private int maxIterations;
+    @Value("${network-geo-data.results-cache.max-coordinates:10000000}")
+    private long maxCachedResultsCoordinates;
 
-    @Autowired
-    private SubstationRepository substationRepository;
+    @Value("${network-geo-data.results-cache.expire-after-write:10m}")
+    private Duration cachedResultsExpireAfterWrite;
+
+    @Value("${network-geo-data.tiles-cache.max-bytes:67108864}")
+    private long maxCachedTilesBytes;
+
+    @Value("${network-geo-data.bulk.substations-per-batch:100}")
+    private int substationsPerBatch;
+
+    @Value("${network-geo-data.bulk.line-coordinates-per-batch:1000}")
+    private int lineCoordinatesPerBatch;
+
+    @Value("${network-geo-data.bulk.max-in-flight-batches:32}")
+    private int maxInFlightBatches;
 
     @Autowired
-    private LineRepository lineRepository;
+    private SubstationCustomRepository substationCustomRepository;
 
     @Autowired
     private LineCustomRepository lineCustomRepository;
 
-    private Map<String, SubstationGeoData> readSubstationGeoDataFromDb(Set<Country> countries) {
-        // read substations from DB
-        // TODO filter by country
-        StopWatch stopWatch = StopWatch.createStarted();
+    @Autowired
+    private GeoDataCache geoDataCache;
+
+    @Autowired
+    private NetworkStoreService networkStoreService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private GeoDataMetrics metrics;
+
+    @Autowired
+    private GeoDataSnapshots snapshots;
+
+    public GeoDataService() {
+    }
+
+    /**
+     * Service computing the results of a network from the geo data of the given cache, without the other beans:
+     * only the methods taking a {@link Network} can be called.
+     */
+    GeoDataService(GeoDataCache geoDataCache, GeoDataMetrics metrics) {
+        this.geoDataCache = Objects.requireNonNull(geoDataCache);
+        this.metrics = Objects.requireNonNull(metrics);
+    }
 
-        List<SubstationEntity> substationEntities = substationRepository.findAll();
-        Map<String, SubstationGeoData> substationsGeoDataDB = substationEntities.stream()
-                .map(SubstationEntity::toGeoData)
-                .collect(Collectors.toMap(SubstationGeoData::getId, Function.identity()));
+    /**
+     * Result computed for a network and a set of countries, from a given version of the stored geo data
+     * and a given generation of the network.
+     */
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class ResultKey {
+        private final UUID networkUuid;
+        private final Set<Country> countries;
+        private final long geoDataVersion;
+        private final UUID networkGeneration;
+    }
 
-        LOGGER.info("{} substations read from DB in {} ms", substationsGeoDataDB.size(),  stopWatch.getTime(TimeUnit.MILLISECONDS));
+    /**
+     * Lines of a result simplified for a zoom level.
+     */
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class SimplifiedLinesKey {
+        private final ResultKey resultKey;
+        private final int zoom;
+    }
+
+    /**
+     * Vector tile of the result of a network for all the countries.
+     */
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class TileKey {
+        private final ResultKey resultKey;
+        private final int z;
+        private final int x;
+        private final int y;
+    }
+
+    private Cache<ResultKey, List<SubstationGeoData>> substationsResults;
+
+    private Cache<ResultKey, GeoGridIndex<SubstationGeoData>> substationsIndexes;
+
+    private Cache<ResultKey, GeoGridIndex<LineGeoData>> linesIndexes;
+
+    private Cache<SimplifiedLinesKey, GeoGridIndex<LineGeoData>> simplifiedLinesIndexes;
+
+    private Cache<TileKey, byte[]> tiles;
+
+    /**
+     * Results cache bounded by the number of coordinates of the cached results, plus one per element, the results
+     * of a large network being much larger than the ones of a country.
+     */
+    private <K, V> Cache<K, V> newResultsCache(String name, ToIntFunction<V> weight) {
+        Cache<K, V> cache = Caffeine.newBuilder()
+                .maximumWeight(maxCachedResultsCoordinates)
+                .<K, V>weigher((key, result) -> weight.applyAsInt(result))
+                .expireAfterWrite(cachedResultsExpireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+
+    private static int weigh(GeoGridIndex<?> index) {
+        return index.size() + index.getCoordinateCount();
+    }
+
+    @PostConstruct
+    void init() {
+        // a substation has a single coordinate
+        substationsResults = newResultsCache("geoDataSubstationsResults", substations -> 2 * substations.size());
+        substationsIndexes = newResultsCache("geoDataSubstationsIndexes", GeoDataService::weigh);
+        linesIndexes = newResultsCache("geoDataLinesIndexes", GeoDataService::weigh);
+        simplifiedLinesIndexes = newResultsCache("geoDataSimplifiedLinesIndexes", GeoDataService::weigh);
+        tiles = Caffeine.newBuilder()
+                .maximumWeight(maxCachedTilesBytes)
+                .<TileKey, byte[]>weigher((key, tile) -> tile.length)
+                .expireAfterWrite(cachedResultsExpireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tiles, "geoDataTiles");
+    }
+
+    private ResultKey resultKey(UUID networkUuid, Set<Country> countries) {
+        return new ResultKey(networkUuid, Set.copyOf(countries), geoDataCache.getVersion(), geoDataCache.getNetworkGeneration(networkUuid));
+    }
+
+    private void invalidateResults() {
+        substationsResults.invalidateAll();
+        substationsIndexes.invalidateAll();
+        linesIndexes.invalidateAll();
+        simplifiedLinesIndexes.invalidateAll();
+        tiles.invalidateAll();
+    }
 
-        return substationsGeoDataDB;
+    private Map<String, SubstationGeoData> readSubstationGeoDataFromDb(List<Substation> substations) {
+        // read substations from DB, only in the partitions of the countries we are looking for.
+        // A substation without country could have been stored in any partition, in that case read them all.
+        return metrics.substationsDbRead().record(() -> {
+            if (substations.stream().allMatch(s -> s.getCountry().isPresent())) {
+                Set<Country> countries = substations.stream().map(Substation::getNullableCountry).collect(Collectors.toCollection(() -> EnumSet.noneOf(Country.class)));
+                return geoDataCache.getSubstations(countries);
+            } else {
+                return substationCustomRepository.getSubstations();
+            }
+        });
     }
 
     List<SubstationGeoData> getSubstations(Network network, Set<Country> countries) {
@@ -66,14 +209,14 @@ public class GeoDataService {
         Objects.requireNonNull(network);
         Objects.requireNonNull(countries);
 
-        // get substations from the db
-        Map<String, SubstationGeoData> substationsGeoDataDb = readSubstationGeoDataFromDb(countries);
-
         // filter substation by countries
         List<Substation> substations = network.getSubstationStream()
                 .filter(s -> countries.isEmpty() || s.getCountry().filter(countries::contains).isPresent())
                 .collect(Collectors.toList());
 
+        // get substations from the db
+        Map<String, SubstationGeoData> substationsGeoDataDb = readSubstationGeoDataFromDb(substations);
+
         // split substations with a known position and the others
         Map<String, SubstationGeoData> substationsGeoData = new HashMap<>();
         Set<String> substationsToCalculate = new HashSet<>();
@@ -87,20 +230,88 @@ public class GeoDataService {
         }
 
         LOGGER.info("{} substations, {} found in the DB, {} not found", substations.size(), substationsGeoData.size(), substationsToCalculate.size());
+        metrics.substationsRead().increment(substationsGeoData.size());
 
         long accuracyFactor = Math.round(100 * (double) substationsGeoData.size() / (substationsToCalculate.size() + substationsGeoData.size()));
         if (accuracyFactor < 75) {
             LOGGER.warn("Accuracy factor is less than 75% !");
         }
 
-        calculateMissingGeoData(network, substations, substationsGeoData, substationsToCalculate);
+        // the neighbours graph is the only part reading the branches of the network, so the lines and transformers
+        // collections are not fetched from the network store when all the positions are known
+        if (!substationsToCalculate.isEmpty()) {
+            calculateMissingGeoData(substations, substationsGeoData, substationsToCalculate);
+        }
 
         return new ArrayList<>(substationsGeoData.values());
     }
 
-    private static int neighboursComparator(Network network, Set<String> neighbors1, Set<String> neighbors2) {
-        return neighbors2.stream().map(s -> network.getSubstation(s).getExtension(SubstationPosition.class)).filter(Objects::nonNull).collect(Collectors.toSet()).size() -
-                neighbors1.stream().map(s -> network.getSubstation(s).getExtension(SubstationPosition.class)).filter(Objects::nonNull).collect(Collectors.toSet()).size();
+    private List<SubstationGeoData> getSubstations(UUID networkUuid, Set<Country> countries, Supplier<Network> network) {
+        return substationsResults.get(resultKey(networkUuid, countries), k -> Collections.unmodifiableList(
+                snapshots.getSubstations(networkUuid, countries, () -> {
+                    prefetchGeoData(countries, false);
+                    return getSubstations(network.get(), countries);
+                })));
+    }
+
+    /**
+     * Returns the substations of a network, reusing the result computed by a previous call
+     * as long as the stored geo data have not changed. The network is only loaded when needed.
+     */
+    List<SubstationGeoData> getSubstations(UUID networkUuid, Set<Country> countries) {
+        Objects.requireNonNull(networkUuid);
+        Objects.requireNonNull(countries);
+
+        return getSubstations(networkUuid, countries, () -> getNetwork(networkUuid));
+    }
+
+    /**
+     * Returns the substations of a network located in a bounding box, from a spatial index of the substations
+     * that is built once and reused as long as the stored geo data have not changed.
+     */
+    List<SubstationGeoData> getSubstations(UUID networkUuid, Set<Country> countries, BoundingBox bbox) {
+        Objects.requireNonNull(networkUuid);
+        Objects.requireNonNull(countries);
+        Objects.requireNonNull(bbox);
+
+        return getSubstationsIndex(resultKey(networkUuid, countries))
+                .query(bbox);
+    }
+
+    private GeoGridIndex<SubstationGeoData> getSubstationsIndex(ResultKey key) {
+        return substationsIndexes.get(key, k -> GeoGridIndex.buildPoints(getSubstations(k.networkUuid, k.countries), SubstationGeoData::getCoordinate));
+    }
+
+    /**
+     * Version of the results of a network, to be sent to clients: the generation of the stored geo data and the
+     * generation of the network, which are the same for all the instances of the server.
+     */
+    String getGeoDataVersion(UUID networkUuid) {
+        return geoDataCache.getGeneration() + "-" + geoDataCache.getNetworkGeneration(networkUuid);
+    }
+
+    /**
+     * Loads a network from the network store. Its collections are fetched when first accessed, and the service only
+     * accesses the substations, the voltage levels, the lines and, to estimate missing positions, the two windings
+     * transformers: the other equipments are never fetched.
+     */
+    private Network getNetwork(UUID networkUuid) {
+        return metrics.networkFetch().record(() -> networkStoreService.getNetwork(networkUuid));
+    }
+
+    /**
+     * Starts the DB reads of the geo data of the requested countries, to be called before loading a network so that
+     * the reads and the network fetch overlap, the results being joined when the geo data are matched with the network.
+     * Without requested countries, the countries of the network are only known once it is loaded: all the partitions
+     * are read, the geo data of the countries of the network being taken from them once it has arrived.
+     * The lines of the requested countries are only a part of the ones read, with the neighbouring countries.
+     */
+    private void prefetchGeoData(Set<Country> countries, boolean withLines) {
+        Set<Country> prefetched = countries.isEmpty() ? EnumSet.allOf(Country.class) : countries;
+        geoDataCache.prefetchSubstations(prefetched);
+        if (withLines) {
+            geoDataCache.prefetchLines(prefetched);
+        }
     }
 
     enum Step {
@@ -108,120 +319,171 @@ public class GeoDataService {
         TWO
     }
 
-    private void calculateMissingGeoData(Network network, List<Substation> substations, Map<String, SubstationGeoData> substationsGeoData,
-                                         Set<String> substationsToCalculate) {
-        StopWatch stopWatch = StopWatch.createStarted();
-
+    void calculateMissingGeoData(List<Substation> substations, Map<String, SubstationGeoData> substationsGeoData,
+                                 Set<String> substationsToCalculate) {
         // adjacency matrix
-        Map<String, Set<String>> neighbours = getNeighbours(substations);
-
-        // let's sort this map by values first : max neighbors having known GPS coords
-        Map<String, Set<String>> sortedNeighbours = neighbours
-                .entrySet()
-                .stream()
-                .filter(e -> !substationsGeoData.containsKey(e.getKey()))
-                .sorted((e1, e2) -> neighboursComparator(network, e1.getValue(), e2.getValue()))
-                .collect(Collectors.toMap(Entry::getKey, Entry::getValue, (oldValue, newValue) -> oldValue, LinkedHashMap::new));
+        SubstationGraph graph = metrics.neighboursBuild().record(() -> SubstationGraph.build(substations));
+
+        // positions by substation number
+        int size = graph.size();
+        double[] lats = new double[size];
+        double[] lons = new double[size];
+        boolean[] known = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            SubstationGeoData substationGeoData = substationsGeoData.get(graph.getSubstation(i).getId());
+            if (substationGeoData != null) {
+                lats[i] = substationGeoData.getCoordinate().getLat();
+                lons[i] = substationGeoData.getCoordinate().getLon();
+                known[i] = true;
+            }
+        }
 
         // STEP 1
-        step(Step.ONE, network, sortedNeighbours, substationsGeoData, substationsToCalculate);
+        int toCalculate = substationsToCalculate.size();
+        int unknown = metrics.estimationStep(Step.ONE).record(() -> step(Step.ONE, graph, lats, lons, known, toCalculate));
 
         // STEP 2
-        if (!substationsToCalculate.isEmpty()) {
-            step(Step.TWO, network, sortedNeighbours, substationsGeoData, substationsToCalculate);
+        if (unknown > 0) {
+            int unknownAfterStepOne = unknown;
+            unknown = metrics.estimationStep(Step.TWO).record(() -> step(Step.TWO, graph, lats, lons, known, unknownAfterStepOne));
+        }
+        metrics.substationsEstimated().increment((double) toCalculate - unknown);
+        metrics.substationsUnknown().increment(unknown);
+
+        for (Iterator<String> it = substationsToCalculate.iterator(); it.hasNext();) {
+            int i = graph.getIndex(it.next());
+            if (known[i]) {
+                Substation substation = graph.getSubstation(i);
+                substationsGeoData.put(substation.getId(), new SubstationGeoData(substation.getId(), substation.getNullableCountry(), new Coordinate(lats[i], lons[i])));
+                it.remove();
+            }
         }
-
-        stopWatch.stop();
-
-        LOGGER.info("Missing substation geo data calculated in {} ms", stopWatch.getTime(TimeUnit.MILLISECONDS));
     }
 
-    private void step(Step step, Network network, Map<String, Set<String>> sortedNeighbours, Map<String, SubstationGeoData> substationsGeoData,
-                      Set<String> substationsToCalculate) {
-        for (int iteration = 0; iteration < maxIterations; iteration++) {
-            int calculated = 0;
-            for (Iterator<String> it = substationsToCalculate.iterator(); it.hasNext();) {
-                String substationId = it.next();
-                Set<String> neighbours = sortedNeighbours.get(substationId);
-
-                // centroid calculation
-                Substation substation = network.getSubstation(substationId);
-                SubstationGeoData substationGeoData = calculateCentroidGeoData(substation, neighbours, step, substationsGeoData);
-                if (substationGeoData != null) {
-                    calculated++;
-                    substationsGeoData.put(substationId, substationGeoData);
-                    it.remove();
+    /**
+     * Propagates the known positions to the unknown substations: a substation is calculated as soon as enough
+     * of its neighbours are known (2 in step one, 1 in step two), which may in turn make its neighbours calculable.
+     * Each iteration calculates the substations that became calculable during the previous one, so each
+     * substation is visited once and the number of known neighbours is only updated along the edges.
+     * The iterations go on until no substation becomes calculable, as far as the known positions propagate:
+     * there are at most as many iterations as substations to calculate.
+     *
+     * @return the number of substations still unknown
+     */
+    private int step(Step step, SubstationGraph graph, double[] lats, double[] lons, boolean[] known, int unknown) {
+        int minKnownNeighbours = step == Step.ONE ? 2 : 1;
+
+        // count the known neighbours of the substations to calculate, and start with the calculable ones
+        int size = graph.size();
+        int[] knownNeighbours = new int[size];
+        int[] calculable = new int[size];
+        int calculableCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (!known[i]) {
+                for (int k = graph.getNeighbourStart(i); k < graph.getNeighbourEnd(i); k++) {
+                    if (known[graph.getNeighbour(k)]) {
+                        knownNeighbours[i]++;
+                    }
+                }
+                if (knownNeighbours[i] >= minKnownNeighbours) {
+                    calculable[calculableCount++] = i;
                 }
             }
-            LOGGER.info("Step {}, iteration {}, {} substation's coordinates have been calculated, {} remains unknown",
-                    step == Step.ONE ? 1 : 2, iteration, calculated, substationsToCalculate.size());
-            if (calculated == 0) {
-                break;
+        }
+
+        int remaining = unknown;
+        int[] nextCalculable = new int[size];
+        Timer iterationTimer = metrics.estimationIteration(step);
+        for (int iteration = 0; calculableCount > 0; iteration++) {
+            long iterationStart = System.nanoTime();
+            int nextCalculableCount = 0;
+            for (int c = 0; c < calculableCount; c++) {
+                int i = calculable[c];
+                calculateCentroid(graph, i, step, lats, lons, known);
+                known[i] = true;
+                remaining--;
+
+                // the neighbours reaching the minimum of known neighbours will be calculated at next iteration
+                for (int k = graph.getNeighbourStart(i); k < graph.getNeighbourEnd(i); k++) {
+                    int j = graph.getNeighbour(k);
+                    if (!known[j] && ++knownNeighbours[j] == minKnownNeighbours) {
+                        nextCalculable[nextCalculableCount++] = j;
+                    }
+                }
             }
+            iterationTimer.record(System.nanoTime() - iterationStart, TimeUnit.NANOSECONDS);
+            LOGGER.debug("Step {}, iteration {}, {} substation's coordinates have been calculated, {} remains unknown",
+                    step == Step.ONE ? 1 : 2, iteration, calculableCount, remaining);
+
+            int[] tmp = calculable;
+            calculable = nextCalculable;
+            nextCalculable = tmp;
+            calculableCount = nextCalculableCount;
         }
+        return remaining;
     }
 
-    private static SubstationGeoData calculateCentroidGeoData(Substation substation, Set<String> neighbours, Step step,
-                                                              Map<String, SubstationGeoData> substationsGeoData) {
+    private static void calculateCentroid(SubstationGraph graph, int i, Step step, double[] lats, double[] lons, boolean[] known) {
         // get neighbours geo data
-        List<SubstationGeoData> neighboursGeoData = neighbours.stream().map(substationsGeoData::get)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        int knownNeighbours = 0;
+        double lat = 0;
+        double lon = 0;
+        for (int k = graph.getNeighbourStart(i); k < graph.getNeighbourEnd(i); k++) {
+            int j = graph.getNeighbour(k);
+            if (known[j]) {
+                knownNeighbours++;
+                lat += lats[j];
+                lon += lons[j];
+            }
+        }
 
-        Coordinate coordinate = null;
-        if (neighboursGeoData.size() > 1) {
+        if (knownNeighbours > 1) {
             // centroid calculation
-            double lat = neighboursGeoData.stream().mapToDouble(n -> n.getCoordinate().getLat()).average().orElseThrow(IllegalStateException::new);
-            double lon = neighboursGeoData.stream().mapToDouble(n -> n.getCoordinate().getLon()).average().orElseThrow(IllegalStateException::new);
-            coordinate = new Coordinate(lat, lon);
-        } else if (neighboursGeoData.size() == 1 && step == Step.TWO) {
+            lats[i] = lat / knownNeighbours;
+            lons[i] = lon / knownNeighbours;
+        } else if (knownNeighbours == 1 && step == Step.TWO) {
             // centroid calculation
-            double lat = neighboursGeoData.get(0).getCoordinate().getLat() - 0.002; // 1° correspond à 111KM
-            double lon = neighboursGeoData.get(0).getCoordinate().getLon() - 0.007; // 1° correspond à 111.11 cos(1) = 60KM
-            coordinate = new Coordinate(lat, lon);
+            lats[i] = lat - 0.002; // 1° correspond à 111KM
+            lons[i] = lon - 0.007; // 1° correspond à 111.11 cos(1) = 60KM
+        } else {
+            throw new IllegalStateException("Substation " + graph.getSubstation(i).getId() + " has not enough known neighbours");
         }
-
-        Country country = substation.getCountry().orElse(null);
-        return coordinate != null ? new SubstationGeoData(substation.getId(), country, coordinate) : null;
     }
 
-    private static Map<String, Set<String>> getNeighbours(List<Substation> substations) {
-        StopWatch stopWatch = StopWatch.createStarted();
-
-        Map<String, Set<String>> neighbours = new HashMap<>();
-        for (Substation s : substations) {
-            neighbours.put(s.getId(), new HashSet<>());
-        }
-
-        for (Substation s : substations) {
-            for (VoltageLevel vl : s.getVoltageLevels()) {
-                for (Branch<?> branch : vl.getConnectables(Branch.class)) {
-                    Substation s1 = branch.getTerminal1().getVoltageLevel().getSubstation();
-                    Substation s2 = branch.getTerminal2().getVoltageLevel().getSubstation();
-                    if (s1 != s) {
-                        neighbours.get(s.getId()).add(s1.getId());
-                    } else if (s2 != s) {
-                        neighbours.get(s.getId()).add(s2.getId());
-                    }
-                }
-            }
-        }
-
-        LOGGER.info("Neighbours calculated in {} ms", stopWatch.getTime(TimeUnit.MILLISECONDS));
-
-        return neighbours;
+    BulkWriteResult saveSubstations(List<SubstationGeoData> substationsGeoData) {
+        return saveSubstations(substationsGeoData, true);
     }
 
+    /**
+     * Saves substations, a new generation of the geo data being only started when asked: an import saving chunks
+     * starts it once, with {@link #newGeneration()}.
+     */
     @SuppressWarnings("javasecurity:S5145")
-    void saveSubstations(List<SubstationGeoData> substationsGeoData) {
+    BulkWriteResult saveSubstations(List<SubstationGeoData> substationsGeoData, boolean newGeneration) {
         LOGGER.info("Saving {} substations geo data", substationsGeoData.size());
 
         List<SubstationEntity> substationEntities = substationsGeoData.stream().map(SubstationEntity::create).collect(Collectors.toList());
-        substationRepository.saveAll(substationEntities);
+        BulkWriteResult result = substationCustomRepository.saveSubstations(substationEntities, substationsPerBatch, maxInFlightBatches);
+
+        // also invalidated on failure, some batches having been written
+        geoDataCache.invalidateSubstations(substationsGeoData.stream().map(SubstationGeoData::getCountry).collect(Collectors.toSet()));
+        invalidateResults();
+        if (newGeneration) {
+            newGeneration();
+        }
+        return result;
+    }
+
+    BulkWriteResult saveLines(List<LineGeoData> linesGeoData) {
+        return saveLines(linesGeoData, true);
     }
 
+    /**
+     * Saves lines, a new generation of the geo data being only started when asked, like
+     * {@link #saveSubstations(List, boolean)}.
+     */
     @SuppressWarnings("javasecurity:S5145")
-    void saveLines(List<LineGeoData> linesGeoData) {
+    BulkWriteResult saveLines(List<LineGeoData> linesGeoData, boolean newGeneration) {
         LOGGER.info("Saving {} lines geo data", linesGeoData.size());
 
         List<LineEntity> linesEntities = new ArrayList<>(linesGeoData.size());
@@ -233,7 +495,22 @@ public class GeoDataService {
                 linesEntities.add(LineEntity.create(l, false));
             }
         }
-        lineRepository.saveAll(linesEntities);
+        BulkWriteResult result = lineCustomRepository.saveLines(linesEntities, lineCoordinatesPerBatch, maxInFlightBatches);
+
+        geoDataCache.invalidateLines(linesGeoData.stream().flatMap(l -> Stream.of(l.getCountry1(), l.getCountry2())).collect(Collectors.toSet()));
+        invalidateResults();
+        if (newGeneration) {
+            newGeneration();
+        }
+        return result;
+    }
+
+    /**
+     * Starts a new generation of the stored geo data, once they have been modified: the caches of all the instances
+     * of the server and the snapshots of all the networks become obsolete.
+     */
+    void newGeneration() {
+        geoDataCache.newGeneration();
     }
 
     boolean emptyOrEquals(String emptyable, String s) {
@@ -301,35 +578,198 @@ public class GeoDataService {
     }
 
     List<LineGeoData> getLines(Network network, Set<Country> countries) {
+        return getLines(network, countries, c -> getSubstations(network, c)).collect(Collectors.toList());
+    }
+
+    List<LineGeoData> getLines(UUID networkUuid, Set<Country> countries) {
+        return streamLines(networkUuid, countries).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the lines of a network, the positions of their substations being reused from
+     * a previous call as long as the stored geo data have not changed.
+     * The network and the geo data are read by this call, but each line is only assembled
+     * when the returned stream reaches it, unless the lines are taken from a snapshot.
+     */
+    Stream<LineGeoData> streamLines(UUID networkUuid, Set<Country> countries) {
+        Objects.requireNonNull(networkUuid);
+
+        if (snapshots.isEnabled()) {
+            return snapshots.getLines(networkUuid, countries, () -> {
+                prefetchGeoData(countries, true);
+                Network network = getNetwork(networkUuid);
+                return getLines(network, countries, c -> getSubstations(networkUuid, c, () -> network)).collect(Collectors.toList());
+            }).stream();
+        }
+        prefetchGeoData(countries, true);
+        Network network = getNetwork(networkUuid);
+        return getLines(network, countries, c -> getSubstations(networkUuid, c, () -> network));
+    }
+
+    /**
+     * Reactive variant of {@link #getSubstations(UUID, Set)}. The network store client is blocking: the network is
+     * loaded and the substations computed on the bounded elastic scheduler, never on the subscribing thread.
+     */
+    Flux<SubstationGeoData> getSubstationsFlux(UUID networkUuid, Set<Country> countries) {
+        Objects.requireNonNull(networkUuid);
+
+        return Mono.fromCallable(() -> getSubstations(networkUuid, countries))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Reactive variant of {@link #streamLines(UUID, Set)}, each line being emitted as soon as it is assembled.
+     * The network is loaded and the lines assembled on the bounded elastic scheduler.
+     */
+    Flux<LineGeoData> getLinesFlux(UUID networkUuid, Set<Country> countries) {
+        Objects.requireNonNull(networkUuid);
+
+        return Flux.fromStream(() -> streamLines(networkUuid, countries))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Drops the results computed for a network, to be called when the network has been modified: its snapshots
+     * are deleted, and a new generation of the network makes the results cached by all the instances obsolete.
+     */
+    void invalidateNetwork(UUID networkUuid) {
+        Objects.requireNonNull(networkUuid);
+
+        snapshots.invalidate(networkUuid);
+        geoDataCache.newNetworkGeneration(networkUuid);
+    }
+
+    /**
+     * Returns the lines of a network intersecting a bounding box, from a spatial index of the assembled lines
+     * that is built once and reused as long as the stored geo data have not changed.
+     */
+    Stream<LineGeoData> streamLines(UUID networkUuid, Set<Country> countries, BoundingBox bbox) {
+        Objects.requireNonNull(networkUuid);
+        Objects.requireNonNull(countries);
+        Objects.requireNonNull(bbox);
+
+        return getLinesIndex(resultKey(networkUuid, countries))
+                .query(bbox)
+                .stream();
+    }
+
+    private GeoGridIndex<LineGeoData> getLinesIndex(ResultKey key) {
+        return linesIndexes.get(key, k -> GeoGridIndex.build(getLines(k.networkUuid, k.countries), LineGeoData::getCoordinates));
+    }
+
+    /**
+     * Returns the lines of a network with their geometries simplified for a zoom level, only the ones intersecting
+     * the bounding box if there is one. The lines of a zoom level are simplified once and reused as long as the
+     * stored geo data have not changed.
+     */
+    Stream<LineGeoData> streamLines(UUID networkUuid, Set<Country> countries, int zoom, BoundingBox bbox) {
+        Objects.requireNonNull(networkUuid);
+        Objects.requireNonNull(countries);
+
+        GeoGridIndex<LineGeoData> index = getSimplifiedLinesIndex(resultKey(networkUuid, countries), zoom);
+        return (bbox != null ? index.query(bbox) : index.getElements()).stream();
+    }
+
+    private GeoGridIndex<LineGeoData> getSimplifiedLinesIndex(ResultKey resultKey, int zoom) {
+        return simplifiedLinesIndexes.get(new SimplifiedLinesKey(resultKey, zoom), k -> {
+            List<LineGeoData> simplified = getLinesIndex(k.resultKey).getElements().stream()
+                    .map(line -> LineSimplifier.simplify(line, k.zoom))
+                    .collect(Collectors.toList());
+            return GeoGridIndex.build(simplified, LineGeoData::getCoordinates);
+        });
+    }
+
+    /**
+     * Returns the Mapbox vector tile z/x/y of the substations and the lines of a network, empty if there is nothing
+     * in the tile. The substations and the lines simplified for the zoom level are taken from the indexes of the
+     * whole network, and the encoded tile is cached as long as the stored geo data and the network have not changed.
+     */
+    byte[] getTile(UUID networkUuid, int z, int x, int y) {
+        Objects.requireNonNull(networkUuid);
+        if (!VectorTileEncoder.isValid(z, x, y)) {
+            throw new IllegalArgumentException("Invalid tile " + z + "/" + x + "/" + y);
+        }
+
+        return tiles.get(new TileKey(resultKey(networkUuid, Collections.emptySet()), z, x, y), k -> {
+            BoundingBox bbox = VectorTileEncoder.getBoundingBox(z, x, y);
+            VectorTileEncoder encoder = new VectorTileEncoder(z, x, y);
+            getSimplifiedLinesIndex(k.resultKey, Math.min(z, LineSimplifier.MAX_ZOOM)).query(bbox).forEach(encoder::addLine);
+            getSubstationsIndex(k.resultKey).query(bbox).forEach(encoder::addSubstation);
+            return encoder.encode();
+        });
+    }
+
+    private Stream<LineGeoData> getLines(Network network, Set<Country> countries, Function<Set<Country>, List<SubstationGeoData>> substationsProvider) {
         LOGGER.info("Loading lines geo data for countries {} of network '{}'", countries, network.getId());
 
         Objects.requireNonNull(network);
         Objects.requireNonNull(countries);
 
-        StopWatch stopWatch = StopWatch.createStarted();
+        List<Line> lines = selectLines(network, countries);
+        // we also want the destination substation (so we add the neighbouring country)
+        Set<Country> countryAndNextTo = getCountries(lines);
+        return getLinesGeoData(lines, countryAndNextTo, toMap(substationsProvider.apply(countryAndNextTo)));
+    }
 
-        // read lines from DB
-        // TODO filter by country
-        Map<String, LineGeoData> linesGeoDataDb = lineCustomRepository.getLines();
+    /**
+     * Returns the substations and the lines of a network, the same as {@link #getSubstations(UUID, Set)} and
+     * {@link #getLines(UUID, Set)} with the network loaded once: the positions of the substations are estimated
+     * from the requested countries only, and the lines use the substations of the requested countries and of the
+     * other side of their lines. Both results are cached and shared with these methods.
+     */
+    NetworkGeoData getNetworkGeoData(UUID networkUuid, Set<Country> countries) {
+        LOGGER.info("Loading substations and lines geo data for countries {} of network '{}'", countries, networkUuid);
+
+        Objects.requireNonNull(networkUuid);
+        Objects.requireNonNull(countries);
 
-        List<Line> lines = network.getLineStream()
+        prefetchGeoData(countries, true);
+        Network network = getNetwork(networkUuid);
+        List<SubstationGeoData> substationsGeoData = getSubstations(networkUuid, countries, () -> network);
+        List<LineGeoData> linesGeoData = getLines(network, countries, c -> getSubstations(networkUuid, c, () -> network))
+                .collect(Collectors.toList());
+        return new NetworkGeoData(substationsGeoData, linesGeoData);
+    }
+
+    private static List<Line> selectLines(Network network, Set<Country> countries) {
+        return network.getLineStream()
                 .filter(line -> countries.isEmpty()
                         || line.getTerminal1().getVoltageLevel().getSubstation().getCountry().map(countries::contains).isPresent()
                         || line.getTerminal2().getVoltageLevel().getSubstation().getCountry().map(countries::contains).isPresent())
                 .collect(Collectors.toList());
-        // we also want the destination substation (so we add the neighbouring country)
-        Set<Country> countryAndNextTo =
-            lines.stream().flatMap(line -> line.getTerminals().stream().map(term -> term.getVoltageLevel().getSubstation().getNullableCountry()).filter(Objects::nonNull))
-            .collect(Collectors.toSet());
-        Map<String, SubstationGeoData> substationGeoDataDb = getSubstationMap(network, countryAndNextTo);
-        List<LineGeoData> lineGeoData = lines.stream().map(line -> getLineGeoDataWithEndSubstations(linesGeoDataDb, substationGeoDataDb, line))
-                .filter(Objects::nonNull).collect(Collectors.toList());
-        LOGGER.info("{} lines read from DB in {} ms", linesGeoDataDb.size(),  stopWatch.getTime(TimeUnit.MILLISECONDS));
+    }
+
+    private static Set<Country> getCountries(List<Line> lines) {
+        return lines.stream().flatMap(line -> line.getTerminals().stream().map(term -> term.getVoltageLevel().getSubstation().getNullableCountry()).filter(Objects::nonNull))
+                .collect(Collectors.toSet());
+    }
 
-        return lineGeoData;
+    private static Map<String, SubstationGeoData> toMap(List<SubstationGeoData> substationsGeoData) {
+        return substationsGeoData.stream().collect(Collectors.toMap(SubstationGeoData::getId, Function.identity()));
     }
 
-    private Map<String, SubstationGeoData> getSubstationMap(Network network, Set<Country> countries) {
-        return getSubstations(network, countries).stream().collect(Collectors.toMap(SubstationGeoData::getId, Function.identity()));
+    private Stream<LineGeoData> getLinesGeoData(List<Line> lines, Set<Country> countryAndNextTo, Map<String, SubstationGeoData> substationGeoDataDb) {
+        // read lines from DB, a line being stored in the partitions of both its countries.
+        // A line without country at both sides could have been stored in any partition, in that case read them all.
+        boolean withoutCountry = lines.stream().anyMatch(line -> line.getTerminals().stream().allMatch(term -> term.getVoltageLevel().getSubstation().getCountry().isEmpty()));
+        Map<String, LineGeoData> linesGeoDataDb = metrics.linesDbRead().record(() -> withoutCountry ? lineCustomRepository.getLines() : geoDataCache.getLines(countryAndNextTo));
+
+        LOGGER.info("{} lines read from DB", linesGeoDataDb.size());
+
+        // the lines are assembled while the stream is consumed: the assembly durations are summed, and recorded
+        // once after the last line
+        long[] assemblyNanos = new long[1];
+        Stream<LineGeoData> assembled = lines.stream().map(line -> {
+            long start = System.nanoTime();
+            LineGeoData lineGeoData = getLineGeoDataWithEndSubstations(linesGeoDataDb, substationGeoDataDb, line);
+            assemblyNanos[0] += System.nanoTime() - start;
+            return lineGeoData;
+        });
+        Stream<LineGeoData> recorded = Stream.of(metrics.linesAssembly()).flatMap(timer -> {
+            timer.record(assemblyNanos[0], TimeUnit.NANOSECONDS);
+            return Stream.empty();
+        });
+        return Stream.concat(assembled, recorded).filter(Objects::nonNull);
     }
 }
@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.datastax.oss.driver.api.core.DriverException;
+import com.powsybl.iidm.network.Country;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.gridsuite.geodata.server.repositories.NetworkSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Optional snapshots, stored in the DB, of the substations and lines computed for a network and a set of countries,
+ * enabled with {@code network-geo-data.snapshots.enabled}. A snapshot is read with a single partition read instead
+ * of loading the network, reading the stored geo data, estimating the missing positions and assembling the lines.
+ * <p>
+ * All the snapshots become obsolete when geo data are saved, a snapshot being only read for the generation of the
+ * geo data it has been computed from. The generation is the one the {@link GeoDataCache} is consistent with, and not
+ * the stored one: an instance which has not seen a new generation yet computes from the geo data it has cached, and
+ * saves its snapshot with the previous generation, never read by the instances that have seen the new one. The network store does not tell when a network is modified: the snapshots
+ * of a network are deleted on demand, and expire after {@code network-geo-data.snapshots.time-to-live}.
+ * Snapshots are an optimization: a failure to read or write one only falls back to computing the result.
+ * Snapshots are encoded in the binary format of the responses, coordinates being rounded to 1e-7 degree, and are
+ * stored in chunks of {@code network-geo-data.snapshots.chunk-bytes}, a single Cassandra mutation being limited to
+ * half a commit log segment. The encoding of a result larger than {@code network-geo-data.snapshots.max-bytes}
+ * is stopped as soon as the limit is passed, and the result is not saved.
+ *
+ * @author agent <agent at local>
+ */
+@Component
+public class GeoDataSnapshots {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeoDataSnapshots.class);
+
+    @Value("${network-geo-data.snapshots.enabled:false}")
+    private boolean enabled;
+
+    @Value("${network-geo-data.snapshots.time-to-live:1d}")
+    private Duration timeToLive;
+
+    @Value("${network-geo-data.snapshots.chunk-bytes:1048576}")
+    private int chunkBytes;
+
+    @Value("${network-geo-data.snapshots.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Autowired
+    private NetworkSnapshotRepository networkSnapshotRepository;
+
+    @Autowired
+    private GeoDataCache geoDataCache;
+
+    @Autowired
+    private GeoDataMetrics metrics;
+
+    @FunctionalInterface
+    private interface Encoder<T> {
+        void encode(OutputStream out, List<T> elements) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Decoder<T> {
+        List<T> decode(InputStream in) throws IOException;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    private static String toKey(Set<Country> countries) {
+        return countries.stream().map(Country::name).sorted().collect(Collectors.joining(","));
+    }
+
+    /**
+     * Encoded snapshot split in chunks, the encoding being stopped as soon as the maximum size is passed.
+     */
+    private static final class ChunkedOutputStream extends OutputStream {
+
+        private final int chunkBytes;
+
+        private final long maxBytes;
+
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+
+        private final ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+
+        private long size;
+
+        ChunkedOutputStream(int chunkBytes, long maxBytes) {
+            this.chunkBytes = chunkBytes;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (size + len > maxBytes) {
+                throw new SnapshotTooLargeException();
+            }
+            size += len;
+            int offset = off;
+            int remaining = len;
+            while (remaining > 0) {
+                int length = Math.min(remaining, chunkBytes - chunk.size());
+                chunk.write(b, offset, length);
+                offset += length;
+                remaining -= length;
+                if (chunk.size() == chunkBytes) {
+                    chunks.add(ByteBuffer.wrap(chunk.toByteArray()));
+                    chunk.reset();
+                }
+            }
+        }
+
+        long size() {
+            return size;
+        }
+
+        List<ByteBuffer> getChunks() {
+            if (chunk.size() > 0) {
+                chunks.add(ByteBuffer.wrap(chunk.toByteArray()));
+                chunk.reset();
+            }
+            return chunks;
+        }
+    }
+
+    private static final class SnapshotTooLargeException extends IOException {
+    }
+
+    private static InputStream toInputStream(List<ByteBuffer> chunks) {
+        List<InputStream> streams = new ArrayList<>(chunks.size());
+        for (ByteBuffer chunk : chunks) {
+            byte[] bytes = new byte[chunk.remaining()];
+            chunk.get(bytes);
+            streams.add(new ByteArrayInputStream(bytes));
+        }
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    private <T> List<T> get(String resource, UUID networkUuid, Set<Country> countries, Supplier<List<T>> compute,
+                            Encoder<T> encoder, Decoder<T> decoder) {
+        if (!enabled) {
+            return compute.get();
+        }
+        String key = toKey(countries);
+        UUID generation = geoDataCache.getGeneration();
+        List<ByteBuffer> snapshot;
+        try {
+            snapshot = networkSnapshotRepository.get(resource, networkUuid, key, generation);
+        } catch (DriverException e) {
+            LOGGER.warn("Snapshot of the {} of network '{}' for countries {} not read: {}", resource, networkUuid, countries, e.getMessage());
+            return compute.get();
+        }
+        metrics.snapshotRead(resource, snapshot != null).increment();
+        try {
+            if (snapshot != null) {
+                return decoder.decode(toInputStream(snapshot));
+            }
+            List<T> elements = compute.get();
+            ChunkedOutputStream out = new ChunkedOutputStream(chunkBytes, maxBytes);
+            try {
+                encoder.encode(out, elements);
+            } catch (SnapshotTooLargeException e) {
+                LOGGER.info("Snapshot of the {} of network '{}' for countries {} not saved, over the {} bytes limit",
+                        resource, networkUuid, countries, maxBytes);
+                return elements;
+            }
+            if (generation.equals(geoDataCache.getGeneration())) {
+                save(resource, networkUuid, countries, generation, out);
+            } else {
+                // computed with geo data read partly before a new generation
+                LOGGER.info("Snapshot of the {} of network '{}' for countries {} not saved, the geo data have been saved meanwhile",
+                        resource, networkUuid, countries);
+            }
+            return elements;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Saves a snapshot, the result being already computed a failure is only logged.
+     */
+    private void save(String resource, UUID networkUuid, Set<Country> countries, UUID generation, ChunkedOutputStream snapshot) {
+        try {
+            networkSnapshotRepository.save(resource, networkUuid, toKey(countries), generation, snapshot.getChunks(),
+                    (int) timeToLive.toSeconds());
+            LOGGER.info("Snapshot of the {} of network '{}' for countries {} saved, {} bytes", resource, networkUuid, countries, snapshot.size());
+        } catch (DriverException e) {
+            LOGGER.warn("Snapshot of the {} of network '{}' for countries {} not saved: {}", resource, networkUuid, countries, e.getMessage());
+        }
+    }
+
+    private static <T> Encoder<T> encoder(Function<OutputStream, GeoDataBinaryWriter> writerFactory, GeoDataBinaryWriter.ElementWriter<T> write) {
+        return (out, elements) -> {
+            try (GeoDataBinaryWriter writer = writerFactory.apply(out)) {
+                for (T element : elements) {
+                    write.write(writer, element);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the snapshot of the substations of a network, computing and saving it if there is none.
+     * The substations are only computed when snapshots are disabled.
+     */
+    List<SubstationGeoData> getSubstations(UUID networkUuid, Set<Country> countries, Supplier<List<SubstationGeoData>> compute) {
+        return get(NetworkSnapshotRepository.SUBSTATIONS, networkUuid, countries, compute,
+                encoder(GeoDataBinaryWriter::forSubstations, GeoDataBinaryWriter::write), GeoDataBinaryReader::readSubstations);
+    }
+
+    /**
+     * Returns the snapshot of the lines of a network, computing and saving it if there is none.
+     * The lines are only computed when snapshots are disabled.
+     */
+    List<LineGeoData> getLines(UUID networkUuid, Set<Country> countries, Supplier<List<LineGeoData>> compute) {
+        return get(NetworkSnapshotRepository.LINES, networkUuid, countries, compute,
+                encoder(GeoDataBinaryWriter::forLines, GeoDataBinaryWriter::write), GeoDataBinaryReader::readLines);
+    }
+
+    /**
+     * Deletes the snapshots of a network, to be called when the network is modified. A failure is only logged,
+     * like the other snapshot failures: the snapshots of the network then expire with their time to live.
+     */
+    void invalidate(UUID networkUuid) {
+        if (enabled) {
+            try {
+                networkSnapshotRepository.delete(networkUuid);
+            } catch (DriverException e) {
+                LOGGER.error("Snapshots of network '{}' not deleted, they may be obsolete until they expire: {}", networkUuid, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import org.gridsuite.geodata.extensions.Coordinate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Spatial index of elements located by a point (substations) or by a polyline (lines), on a regular grid covering
+ * the extent of the elements with about one cell per element. A point is stored in the cell it falls in, and a
+ * polyline in all the cells intersected by the envelopes of its segments. The elements of cell c are
+ * {@code entries[offsets[c]]} to {@code entries[offsets[c + 1] - 1]} (compressed sparse rows), by increasing number.
+ * <p>
+ * A query only visits the cells overlapping the bounding box, so that its cost depends on the number of elements
+ * around the bounding box and not on the total number of elements. A polyline is selected when the envelope of
+ * one of its segments intersects the bounding box.
+ *
+ * @author agent <agent at local>
+ */
+final class GeoGridIndex<T> {
+
+    private static final int MAX_CELLS_PER_SIDE = 1024;
+
+    private static final double MIN_CELL_SIZE = 1e-9;
+
+    private final List<T> elements;
+
+    private final Function<T, List<Coordinate>> coordinates;
+
+    private final double minLat;
+
+    private final double minLon;
+
+    private final double maxLat;
+
+    private final double maxLon;
+
+    private final double latStep;
+
+    private final double lonStep;
+
+    private final int side;
+
+    private final int[] offsets;
+
+    private final int[] entries;
+
+    private final int coordinateCount;
+
+    private GeoGridIndex(List<T> elements, Function<T, List<Coordinate>> coordinates,
+                         double minLat, double minLon, double maxLat, double maxLon) {
+        this.elements = elements;
+        this.coordinates = coordinates;
+        this.minLat = minLat;
+        this.minLon = minLon;
+        this.maxLat = maxLat;
+        this.maxLon = maxLon;
+        side = (int) Math.min(MAX_CELLS_PER_SIDE, Math.max(1, Math.ceil(Math.sqrt(elements.size()))));
+        latStep = Math.max((maxLat - minLat) / side, MIN_CELL_SIZE);
+        lonStep = Math.max((maxLon - minLon) / side, MIN_CELL_SIZE);
+
+        // count the elements of each cell, then fill the cells in a second pass
+        int cellCount = side * side;
+        int[] counts = new int[cellCount + 1];
+        int[] lastElements = new int[cellCount];
+        Arrays.fill(lastElements, -1);
+        int points = 0;
+        for (int i = 0; i < elements.size(); i++) {
+            int element = i;
+            List<Coordinate> elementPoints = getCoordinates(element);
+            points += elementPoints.size();
+            forEachCell(elementPoints, cell -> {
+                if (lastElements[cell] != element) {
+                    lastElements[cell] = element;
+                    counts[cell + 1]++;
+                }
+            });
+        }
+        coordinateCount = points;
+        offsets = new int[cellCount + 1];
+        for (int cell = 0; cell < cellCount; cell++) {
+            offsets[cell + 1] = offsets[cell] + counts[cell + 1];
+        }
+        entries = new int[offsets[cellCount]];
+        int[] next = Arrays.copyOf(offsets, cellCount);
+        Arrays.fill(lastElements, -1);
+        for (int i = 0; i < elements.size(); i++) {
+            int element = i;
+            forEachCell(getCoordinates(element), cell -> {
+                if (lastElements[cell] != element) {
+                    lastElements[cell] = element;
+                    entries[next[cell]++] = element;
+                }
+            });
+        }
+    }
+
+    /**
+     * Indexes the elements, the coordinates of an element being a single point or the points of a polyline.
+     * Elements without coordinates are never found.
+     */
+    static <T> GeoGridIndex<T> build(List<T> elements, Function<T, List<Coordinate>> coordinates) {
+        Function<T, List<Coordinate>> nonNullCoordinates = element -> Objects.requireNonNullElse(coordinates.apply(element), Collections.emptyList());
+        double minLat = Double.POSITIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        for (T element : elements) {
+            for (Coordinate c : nonNullCoordinates.apply(element)) {
+                minLat = Math.min(minLat, c.getLat());
+                minLon = Math.min(minLon, c.getLon());
+                maxLat = Math.max(maxLat, c.getLat());
+                maxLon = Math.max(maxLon, c.getLon());
+            }
+        }
+        if (minLat > maxLat) {
+            return new GeoGridIndex<>(Collections.emptyList(), nonNullCoordinates, 0, 0, 0, 0);
+        }
+        return new GeoGridIndex<>(elements, nonNullCoordinates, minLat, minLon, maxLat, maxLon);
+    }
+
+    static <T> GeoGridIndex<T> buildPoints(List<T> elements, Function<T, Coordinate> coordinate) {
+        return build(elements, element -> {
+            Coordinate c = coordinate.apply(element);
+            return c != null ? List.of(c) : null;
+        });
+    }
+
+    private List<Coordinate> getCoordinates(int element) {
+        return coordinates.apply(elements.get(element));
+    }
+
+    private int row(double lat) {
+        return Math.max(0, Math.min(side - 1, (int) ((lat - minLat) / latStep)));
+    }
+
+    private int column(double lon) {
+        return Math.max(0, Math.min(side - 1, (int) ((lon - minLon) / lonStep)));
+    }
+
+    private void forEachCell(double envelopeMinLat, double envelopeMinLon, double envelopeMaxLat, double envelopeMaxLon, IntConsumer action) {
+        int lastRow = row(envelopeMaxLat);
+        int lastColumn = column(envelopeMaxLon);
+        for (int r = row(envelopeMinLat); r <= lastRow; r++) {
+            for (int c = column(envelopeMinLon); c <= lastColumn; c++) {
+                action.accept(r * side + c);
+            }
+        }
+    }
+
+    private void forEachCell(List<Coordinate> points, IntConsumer action) {
+        if (points.size() == 1) {
+            action.accept(row(points.get(0).getLat()) * side + column(points.get(0).getLon()));
+        }
+        for (int k = 0; k + 1 < points.size(); k++) {
+            Coordinate c1 = points.get(k);
+            Coordinate c2 = points.get(k + 1);
+            forEachCell(Math.min(c1.getLat(), c2.getLat()), Math.min(c1.getLon(), c2.getLon()),
+                    Math.max(c1.getLat(), c2.getLat()), Math.max(c1.getLon(), c2.getLon()), action);
+        }
+    }
+
+    private static boolean intersects(List<Coordinate> points, BoundingBox bbox) {
+        if (points.size() == 1) {
+            return bbox.contains(points.get(0).getLat(), points.get(0).getLon());
+        }
+        for (int k = 0; k + 1 < points.size(); k++) {
+            Coordinate c1 = points.get(k);
+            Coordinate c2 = points.get(k + 1);
+            if (bbox.intersects(Math.min(c1.getLat(), c2.getLat()), Math.min(c1.getLon(), c2.getLon()),
+                    Math.max(c1.getLat(), c2.getLat()), Math.max(c1.getLon(), c2.getLon()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the elements intersecting the bounding box, in the order they have been indexed.
+     */
+    List<T> query(BoundingBox bbox) {
+        if (elements.isEmpty() || !bbox.intersects(minLat, minLon, maxLat, maxLon)) {
+            return Collections.emptyList();
+        }
+
+        // an element spanning several cells is found in each of them
+        int[] candidates = new int[16];
+        int candidateCount = 0;
+        int lastRow = row(bbox.getMaxLat());
+        int lastColumn = column(bbox.getMaxLon());
+        for (int r = row(bbox.getMinLat()); r <= lastRow; r++) {
+            for (int c = column(bbox.getMinLon()); c <= lastColumn; c++) {
+                int cell = r * side + c;
+                int count = offsets[cell + 1] - offsets[cell];
+                if (candidateCount + count > candidates.length) {
+                    candidates = Arrays.copyOf(candidates, Math.max(2 * candidates.length, candidateCount + count));
+                }
+                System.arraycopy(entries, offsets[cell], candidates, candidateCount, count);
+                candidateCount += count;
+            }
+        }
+        Arrays.sort(candidates, 0, candidateCount);
+
+        List<T> found = new ArrayList<>();
+        int previous = -1;
+        for (int k = 0; k < candidateCount; k++) {
+            int element = candidates[k];
+            if (element != previous && intersects(getCoordinates(element), bbox)) {
+                found.add(elements.get(element));
+            }
+            previous = element;
+        }
+        return found;
+    }
+
+    List<T> getElements() {
+        return elements;
+    }
+
+    int size() {
+        return elements.size();
+    }
+
+    /**
+     * Number of coordinates of the indexed elements, a measure of the memory used by the index and its elements.
+     */
+    int getCoordinateCount() {
+        return coordinateCount;
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import org.gridsuite.geodata.server.repositories.BulkWriteResult;
+import org.gridsuite.geodata.server.repositories.LineCustomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migration of the lines written with their coordinates as a list of user defined type values to the packed
+ * coordinates column, run at startup when {@code network-geo-data.migration.pack-line-coordinates} is true.
+ * The packed coordinates column itself is added at startup by {@link LineCustomRepository}, lines not migrated
+ * yet being still read from the list. The lines rewritten by an instance older than the packed coordinates column,
+ * during a rolling upgrade, have a list again and are migrated too. The migration can be run again: lines without
+ * list are left as is.
+ *
+ * @author agent <agent at local>
+ */
+@Component
+@ConditionalOnProperty(name = "network-geo-data.migration.pack-line-coordinates", havingValue = "true")
+public class LineCoordinatesMigration implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LineCoordinatesMigration.class);
+
+    @Value("${network-geo-data.bulk.line-coordinates-per-batch:1000}")
+    private int lineCoordinatesPerBatch;
+
+    @Value("${network-geo-data.bulk.max-in-flight-batches:32}")
+    private int maxInFlightBatches;
+
+    @Autowired
+    private LineCustomRepository lineCustomRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        BulkWriteResult result = lineCustomRepository.packLegacyCoordinates(lineCoordinatesPerBatch, maxInFlightBatches);
+        LOGGER.info("{} lines coordinates packed in {} ms, {} failed", result.getRows(), result.getElapsedMillis(), result.getFailedRows());
+        if (result.hasFailures()) {
+            LOGGER.warn("Lines coordinates packing failures: {}", result.getFailures());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Douglas-Peucker simplification of the lines geometries for a zoom level of a web map (256 pixels tiles),
+ * the tolerance of a zoom level being the size of a pixel at the equator. Distances are computed in degrees,
+ * the longitudes being scaled by the cosine of the latitude of the line.
+ * The ends of a line, which are the positions of its substations, are always kept.
+ *
+ * @author agent <agent at local>
+ */
+final class LineSimplifier {
+
+    static final int MAX_ZOOM = 20;
+
+    private LineSimplifier() {
+    }
+
+    /**
+     * Size in degrees of a pixel at the equator for a zoom level.
+     */
+    static double getTolerance(int zoom) {
+        return 360d / (256 * Math.pow(2, zoom));
+    }
+
+    /**
+     * Returns the lowest zoom level whose tolerance is not greater than the given one, so that the geometries
+     * of the given tolerance are at least as detailed as requested.
+     */
+    static int getZoom(double tolerance) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Tolerance must be positive");
+        }
+        int zoom = (int) Math.ceil(Math.log(getTolerance(0) / tolerance) / Math.log(2));
+        return Math.max(0, Math.min(MAX_ZOOM, zoom));
+    }
+
+    static LineGeoData simplify(LineGeoData line, int zoom) {
+        List<Coordinate> coordinates = simplify(line.getCoordinates(), getTolerance(zoom));
+        return coordinates == line.getCoordinates() ? line
+                : new LineGeoData(line.getId(), line.getCountry1(), line.getCountry2(), line.getSubstationStart(), line.getSubstationEnd(), coordinates);
+    }
+
+    /**
+     * Returns the coordinates to keep, the given list itself when all of them are kept.
+     */
+    static List<Coordinate> simplify(List<Coordinate> coordinates, double tolerance) {
+        int size = coordinates.size();
+        if (size <= 2) {
+            return coordinates;
+        }
+        double[] lats = new double[size];
+        double[] lons = new double[size];
+        double lonScale = Math.cos(Math.toRadians(coordinates.get(0).getLat()));
+        for (int i = 0; i < size; i++) {
+            lats[i] = coordinates.get(i).getLat();
+            lons[i] = coordinates.get(i).getLon() * lonScale;
+        }
+
+        // ranges [first, last] still to simplify, the ends of a range being kept
+        boolean[] kept = new boolean[size];
+        kept[0] = true;
+        kept[size - 1] = true;
+        int keptCount = 2;
+        int[] ranges = new int[2 * size];
+        int rangeCount = 0;
+        ranges[rangeCount++] = 0;
+        ranges[rangeCount++] = size - 1;
+        double squaredTolerance = tolerance * tolerance;
+        while (rangeCount > 0) {
+            int last = ranges[--rangeCount];
+            int first = ranges[--rangeCount];
+            double maxSquaredDistance = 0;
+            int farthest = -1;
+            for (int i = first + 1; i < last; i++) {
+                double squaredDistance = squaredSegmentDistance(lats[i], lons[i], lats[first], lons[first], lats[last], lons[last]);
+                if (squaredDistance > maxSquaredDistance) {
+                    maxSquaredDistance = squaredDistance;
+                    farthest = i;
+                }
+            }
+            if (farthest >= 0 && maxSquaredDistance > squaredTolerance) {
+                kept[farthest] = true;
+                keptCount++;
+                ranges[rangeCount++] = first;
+                ranges[rangeCount++] = farthest;
+                ranges[rangeCount++] = farthest;
+                ranges[rangeCount++] = last;
+            }
+        }
+
+        if (keptCount == size) {
+            return coordinates;
+        }
+        List<Coordinate> simplified = new ArrayList<>(keptCount);
+        for (int i = 0; i < size; i++) {
+            if (kept[i]) {
+                simplified.add(coordinates.get(i));
+            }
+        }
+        return simplified;
+    }
+
+    private static double squaredSegmentDistance(double lat, double lon, double lat1, double lon1, double lat2, double lon2) {
+        double dLat = lat2 - lat1;
+        double dLon = lon2 - lon1;
+        double squaredLength = dLat * dLat + dLon * dLon;
+        double t = squaredLength > 0 ? ((lat - lat1) * dLat + (lon - lon1) * dLon) / squaredLength : 0;
+        t = Math.max(0, Math.min(1, t));
+        double projectionLat = lat1 + t * dLat - lat;
+        double projectionLon = lon1 + t * dLon - lon;
+        return projectionLat * projectionLat + projectionLon * projectionLon;
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.powsybl.iidm.network.Branch;
+import com.powsybl.iidm.network.Substation;
+import com.powsybl.iidm.network.VoltageLevel;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adjacency of a set of substations, two substations being neighbours when a branch connects them.
+ * Substations are numbered from 0 in the order they are given, and the neighbours of substation i are
+ * {@code targets[offsets[i]]} to {@code targets[offsets[i + 1] - 1]} (compressed sparse rows), without duplicates.
+ * Only the branches between two substations of the set are kept.
+ *
+ * @author agent <agent at local>
+ */
+final class SubstationGraph {
+
+    private final List<Substation> substations;
+
+    private final Map<String, Integer> indexes;
+
+    private final int[] offsets;
+
+    private final int[] targets;
+
+    private SubstationGraph(List<Substation> substations, Map<String, Integer> indexes, int[] offsets, int[] targets) {
+        this.substations = substations;
+        this.indexes = indexes;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    static SubstationGraph build(List<Substation> substations) {
+        int size = substations.size();
+        Map<String, Integer> indexes = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            indexes.put(substations.get(i).getId(), i);
+        }
+
+        // edges as (source, target) pairs, each branch being seen from both its sides
+        int[] edges = new int[16];
+        int edgeCount = 0;
+        int[] degrees = new int[size];
+        for (int i = 0; i < size; i++) {
+            Substation s = substations.get(i);
+            for (VoltageLevel vl : s.getVoltageLevels()) {
+                for (Branch<?> branch : vl.getConnectables(Branch.class)) {
+                    Substation s1 = branch.getTerminal1().getVoltageLevel().getSubstation();
+                    Substation s2 = branch.getTerminal2().getVoltageLevel().getSubstation();
+                    Substation other = s1 != s ? s1 : s2;
+                    Integer j = other != s ? indexes.get(other.getId()) : null;
+                    if (j != null) {
+                        if (2 * edgeCount + 2 > edges.length) {
+                            edges = Arrays.copyOf(edges, edges.length * 2);
+                        }
+                        edges[2 * edgeCount] = i;
+                        edges[2 * edgeCount + 1] = j;
+                        edgeCount++;
+                        degrees[i]++;
+                    }
+                }
+            }
+        }
+
+        // counting sort of the edges by source
+        int[] offsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] = offsets[i] + degrees[i];
+        }
+        int[] targets = new int[edgeCount];
+        int[] next = Arrays.copyOf(offsets, size);
+        for (int e = 0; e < edgeCount; e++) {
+            targets[next[edges[2 * e]]++] = edges[2 * e + 1];
+        }
+
+        // remove the duplicates due to parallel branches, compacting the rows
+        int compacted = 0;
+        for (int i = 0; i < size; i++) {
+            int from = offsets[i];
+            int to = offsets[i + 1];
+            Arrays.sort(targets, from, to);
+            offsets[i] = compacted;
+            for (int k = from; k < to; k++) {
+                if (compacted == offsets[i] || targets[compacted - 1] != targets[k]) {
+                    targets[compacted++] = targets[k];
+                }
+            }
+        }
+        offsets[size] = compacted;
+
+        return new SubstationGraph(substations, indexes, offsets, Arrays.copyOf(targets, compacted));
+    }
+
+    int size() {
+        return substations.size();
+    }
+
+    Substation getSubstation(int i) {
+        return substations.get(i);
+    }
+
+    /**
+     * Returns the number of the substation, or -1 if it is not in the graph.
+     */
+    int getIndex(String substationId) {
+        Integer i = indexes.get(substationId);
+        return i != null ? i : -1;
+    }
+
+    int getNeighbourStart(int i) {
+        return offsets[i];
+    }
+
+    int getNeighbourEnd(int i) {
+        return offsets[i + 1];
+    }
+
+    int getNeighbour(int k) {
+        return targets[k];
+    }
+
+    int getEdgeCount() {
+        return targets.length;
+    }
+}
@@ -0,0 +1,452 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encoder of a Mapbox vector tile (version 2.1 of the specification) of the web mercator tile z/x/y, with a layer
+ * {@value #SUBSTATIONS_LAYER} of points and a layer {@value #LINES_LAYER} of line strings, the features having the
+ * properties id and country (country1 and country2 for lines). Geometries are clipped to the tile plus a buffer,
+ * so that the symbols and the lines crossing the tile borders are rendered without gaps, and quantized to the tile
+ * extent. The protobuf messages are written by hand, the tile schema being small and stable.
+ *
+ * @author agent <agent at local>
+ */
+final class VectorTileEncoder {
+
+    static final String MEDIA_TYPE_VALUE = "application/vnd.mapbox-vector-tile";
+
+    static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+
+    static final String SUBSTATIONS_LAYER = "substations";
+
+    static final String LINES_LAYER = "lines";
+
+    static final int EXTENT = 4096;
+
+    static final int BUFFER = 64;
+
+    static final int MAX_ZOOM = 24;
+
+    private static final double MAX_LATITUDE = 85.0511287798;
+
+    // protobuf wire types
+    private static final int VARINT = 0;
+    private static final int LENGTH_DELIMITED = 2;
+
+    // tile fields
+    private static final int TILE_LAYERS = 3;
+
+    // layer fields
+    private static final int LAYER_NAME = 1;
+    private static final int LAYER_FEATURES = 2;
+    private static final int LAYER_KEYS = 3;
+    private static final int LAYER_VALUES = 4;
+    private static final int LAYER_EXTENT = 5;
+    private static final int LAYER_VERSION = 15;
+
+    // feature fields
+    private static final int FEATURE_ID = 1;
+    private static final int FEATURE_TAGS = 2;
+    private static final int FEATURE_TYPE = 3;
+    private static final int FEATURE_GEOMETRY = 4;
+
+    // value fields
+    private static final int VALUE_STRING = 1;
+
+    // geometry types and commands
+    private static final int POINT = 1;
+    private static final int LINESTRING = 2;
+    private static final int MOVE_TO = 1;
+    private static final int LINE_TO = 2;
+
+    private final int z;
+
+    private final int x;
+
+    private final int y;
+
+    private final Layer substations = new Layer(SUBSTATIONS_LAYER);
+
+    private final Layer lines = new Layer(LINES_LAYER);
+
+    VectorTileEncoder(int z, int x, int y) {
+        if (!isValid(z, x, y)) {
+            throw new IllegalArgumentException("Invalid tile " + z + "/" + x + "/" + y);
+        }
+        this.z = z;
+        this.x = x;
+        this.y = y;
+    }
+
+    static boolean isValid(int z, int x, int y) {
+        return z >= 0 && z <= MAX_ZOOM && x >= 0 && y >= 0 && x < (1 << z) && y < (1 << z);
+    }
+
+    private static double tileLon(int z, double x) {
+        return x / (1 << z) * 360 - 180;
+    }
+
+    private static double tileLat(int z, double y) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y / (1 << z)))));
+    }
+
+    /**
+     * Bounding box of the tile with its buffer, the elements to encode in the tile.
+     */
+    static BoundingBox getBoundingBox(int z, int x, int y) {
+        double buffer = (double) BUFFER / EXTENT;
+        return new BoundingBox(Math.max(-90, tileLat(z, y + 1 + buffer)), Math.max(-180, tileLon(z, x - buffer)),
+                Math.min(90, tileLat(z, y - buffer)), Math.min(180, tileLon(z, x + 1 + buffer)));
+    }
+
+    private double toTileX(double lon) {
+        return ((lon + 180) / 360 * (1 << z) - x) * EXTENT;
+    }
+
+    private double toTileY(double lat) {
+        double sin = Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat))));
+        return ((0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI)) * (1 << z) - y) * EXTENT;
+    }
+
+    private static boolean inBuffer(double tileX, double tileY) {
+        return tileX >= -BUFFER && tileX <= EXTENT + BUFFER && tileY >= -BUFFER && tileY <= EXTENT + BUFFER;
+    }
+
+    void addSubstation(SubstationGeoData substation) {
+        Coordinate coordinate = substation.getCoordinate();
+        if (coordinate == null) {
+            return;
+        }
+        double tileX = toTileX(coordinate.getLon());
+        double tileY = toTileY(coordinate.getLat());
+        if (!inBuffer(tileX, tileY)) {
+            return;
+        }
+        Feature feature = substations.newFeature(POINT);
+        feature.tag("id", substation.getId());
+        feature.tag("country", substation.getCountry() != null ? substation.getCountry().name() : null);
+        feature.moveTo((int) Math.round(tileX), (int) Math.round(tileY));
+        substations.add(feature);
+    }
+
+    void addLine(LineGeoData line) {
+        List<Coordinate> coordinates = line.getCoordinates();
+        if (coordinates == null || coordinates.size() < 2) {
+            return;
+        }
+        double[] xs = new double[coordinates.size()];
+        double[] ys = new double[coordinates.size()];
+        for (int i = 0; i < coordinates.size(); i++) {
+            xs[i] = toTileX(coordinates.get(i).getLon());
+            ys[i] = toTileY(coordinates.get(i).getLat());
+        }
+
+        // the parts of the line inside the buffered tile, quantized
+        List<int[]> parts = new ArrayList<>();
+        Part part = null;
+        double[] clipped = new double[4];
+        for (int i = 0; i + 1 < xs.length; i++) {
+            if (!clip(xs[i], ys[i], xs[i + 1], ys[i + 1], clipped)) {
+                part = close(part, parts);
+                continue;
+            }
+            // the segment starts a new part when it enters the buffered tile
+            if (part == null || clipped[0] != xs[i] || clipped[1] != ys[i]) {
+                close(part, parts);
+                part = new Part();
+                part.add(clipped[0], clipped[1]);
+            }
+            part.add(clipped[2], clipped[3]);
+            if (clipped[2] != xs[i + 1] || clipped[3] != ys[i + 1]) {
+                part = close(part, parts);
+            }
+        }
+        close(part, parts);
+        if (parts.isEmpty()) {
+            return;
+        }
+
+        Feature feature = lines.newFeature(LINESTRING);
+        feature.tag("id", line.getId());
+        feature.tag("country1", line.getCountry1() != null ? line.getCountry1().name() : null);
+        feature.tag("country2", line.getCountry2() != null ? line.getCountry2().name() : null);
+        for (int[] points : parts) {
+            feature.lineString(points);
+        }
+        lines.add(feature);
+    }
+
+    private static Part close(Part part, List<int[]> parts) {
+        if (part != null && part.size >= 4) {
+            parts.add(part.toArray());
+        }
+        return null;
+    }
+
+    /**
+     * Liang-Barsky clipping of a segment to the buffered tile, the clipped segment being written in the result.
+     *
+     * @return false if the segment is outside the buffered tile
+     */
+    private static boolean clip(double x1, double y1, double x2, double y2, double[] result) {
+        double min = -BUFFER;
+        double max = EXTENT + BUFFER;
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double[] p = {-dx, dx, -dy, dy};
+        double[] q = {x1 - min, max - x1, y1 - min, max - y1};
+        double t0 = 0;
+        double t1 = 1;
+        for (int k = 0; k < 4; k++) {
+            if (p[k] == 0) {
+                if (q[k] < 0) {
+                    return false;
+                }
+            } else {
+                double t = q[k] / p[k];
+                if (p[k] < 0) {
+                    t0 = Math.max(t0, t);
+                } else {
+                    t1 = Math.min(t1, t);
+                }
+            }
+        }
+        if (t0 > t1) {
+            return false;
+        }
+        result[0] = t0 == 0 ? x1 : x1 + t0 * dx;
+        result[1] = t0 == 0 ? y1 : y1 + t0 * dy;
+        result[2] = t1 == 1 ? x2 : x1 + t1 * dx;
+        result[3] = t1 == 1 ? y2 : y1 + t1 * dy;
+        return true;
+    }
+
+    /**
+     * Quantized points of a part of a line, without consecutive duplicates.
+     */
+    private static final class Part {
+
+        private int[] points = new int[16];
+
+        private int size;
+
+        void add(double tileX, double tileY) {
+            int px = (int) Math.round(tileX);
+            int py = (int) Math.round(tileY);
+            if (size >= 2 && points[size - 2] == px && points[size - 1] == py) {
+                return;
+            }
+            if (size + 2 > points.length) {
+                points = Arrays.copyOf(points, 2 * points.length);
+            }
+            points[size++] = px;
+            points[size++] = py;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(points, size);
+        }
+    }
+
+    /**
+     * Returns the encoded tile, empty if there is no feature in the tile.
+     */
+    byte[] encode() {
+        ProtobufWriter tile = new ProtobufWriter();
+        for (Layer layer : List.of(substations, lines)) {
+            if (!layer.features.isEmpty()) {
+                tile.writeMessage(TILE_LAYERS, layer.encode());
+            }
+        }
+        return tile.toByteArray();
+    }
+
+    /**
+     * Features of a layer, with the keys and the values of their properties, shared by the features.
+     */
+    private static final class Layer {
+
+        private final String name;
+
+        private final List<Feature> features = new ArrayList<>();
+
+        private final Map<String, Integer> keys = new LinkedHashMap<>();
+
+        private final Map<String, Integer> values = new LinkedHashMap<>();
+
+        private Layer(String name) {
+            this.name = name;
+        }
+
+        Feature newFeature(int type) {
+            return new Feature(this, type);
+        }
+
+        void add(Feature feature) {
+            features.add(feature);
+        }
+
+        ProtobufWriter encode() {
+            ProtobufWriter layer = new ProtobufWriter();
+            layer.writeVarint(LAYER_VERSION, 2);
+            layer.writeString(LAYER_NAME, name);
+            long id = 1;
+            for (Feature feature : features) {
+                ProtobufWriter message = new ProtobufWriter();
+                message.writeVarint(FEATURE_ID, id++);
+                message.writePacked(FEATURE_TAGS, feature.tags);
+                message.writeVarint(FEATURE_TYPE, feature.type);
+                message.writePacked(FEATURE_GEOMETRY, feature.geometry);
+                layer.writeMessage(LAYER_FEATURES, message);
+            }
+            for (String key : keys.keySet()) {
+                layer.writeString(LAYER_KEYS, key);
+            }
+            for (String value : values.keySet()) {
+                ProtobufWriter message = new ProtobufWriter();
+                message.writeString(VALUE_STRING, value);
+                layer.writeMessage(LAYER_VALUES, message);
+            }
+            layer.writeVarint(LAYER_EXTENT, EXTENT);
+            return layer;
+        }
+    }
+
+    /**
+     * Properties and geometry commands of a feature, the coordinates being relative to the previous point.
+     */
+    private static final class Feature {
+
+        private final Layer layer;
+
+        private final int type;
+
+        private final IntList tags = new IntList();
+
+        private final IntList geometry = new IntList();
+
+        private int cursorX;
+
+        private int cursorY;
+
+        private Feature(Layer layer, int type) {
+            this.layer = layer;
+            this.type = type;
+        }
+
+        void tag(String key, String value) {
+            if (value != null) {
+                tags.add(layer.keys.computeIfAbsent(key, k -> layer.keys.size()));
+                tags.add(layer.values.computeIfAbsent(value, v -> layer.values.size()));
+            }
+        }
+
+        private static int command(int id, int count) {
+            return (id & 0x7) | (count << 3);
+        }
+
+        private static int zigzag(int n) {
+            return (n << 1) ^ (n >> 31);
+        }
+
+        private void point(int px, int py) {
+            geometry.add(zigzag(px - cursorX));
+            geometry.add(zigzag(py - cursorY));
+            cursorX = px;
+            cursorY = py;
+        }
+
+        void moveTo(int px, int py) {
+            geometry.add(command(MOVE_TO, 1));
+            point(px, py);
+        }
+
+        void lineString(int[] points) {
+            moveTo(points[0], points[1]);
+            geometry.add(command(LINE_TO, points.length / 2 - 1));
+            for (int i = 2; i < points.length; i += 2) {
+                point(points[i], points[i + 1]);
+            }
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[8];
+
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private static final class ProtobufWriter {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        private void writeRawVarint(long value) {
+            long v = value;
+            while ((v & ~0x7FL) != 0) {
+                out.write((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            out.write((int) v);
+        }
+
+        private void writeTag(int field, int wireType) {
+            writeRawVarint((field << 3) | wireType);
+        }
+
+        void writeVarint(int field, long value) {
+            writeTag(field, VARINT);
+            writeRawVarint(value);
+        }
+
+        void writeString(int field, String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeTag(field, LENGTH_DELIMITED);
+            writeRawVarint(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        void writeMessage(int field, ProtobufWriter message) {
+            writeTag(field, LENGTH_DELIMITED);
+            byte[] bytes = message.toByteArray();
+            writeRawVarint(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        void writePacked(int field, IntList values) {
+            ProtobufWriter packed = new ProtobufWriter();
+            for (int i = 0; i < values.size; i++) {
+                packed.writeRawVarint(values.values[i] & 0xFFFFFFFFL);
+            }
+            writeMessage(field, packed);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
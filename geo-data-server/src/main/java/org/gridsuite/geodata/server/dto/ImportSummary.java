@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts of a streamed import: records read, records rejected because they could not be parsed,
+ * rows and batches written or failed in the DB, and the first errors.
+ *
+ * @author agent <agent at local>
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+@ToString
+public class ImportSummary {
+
+    private long records;
+
+    private long invalidRecords;
+
+    private long rows;
+
+    private long failedRows;
+
+    private int batches;
+
+    private int failedBatches;
+
+    private long elapsedMillis;
+
+    @Builder.Default
+    private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server.repositories;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import org.apache.commons.lang3.time.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Writes rows as unlogged batches, each batch only holding rows of a same partition so that it is applied
+ * by a single replica set, the batches being executed asynchronously with a bounded number of batches in flight.
+ *
+ * @author agent <agent at local>
+ */
+final class AsyncBatchWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncBatchWriter.class);
+
+    private final CqlSession session;
+
+    private final int maxInFlight;
+
+    private final Semaphore inFlight;
+
+    private final Progress progress = new Progress();
+
+    private final StopWatch stopWatch = StopWatch.createStarted();
+
+    /**
+     * Counters updated by the driver threads as the batches complete.
+     */
+    private static final class Progress {
+
+        private final AtomicLong rows = new AtomicLong();
+
+        private final AtomicLong failedRows = new AtomicLong();
+
+        private final AtomicInteger batches = new AtomicInteger();
+
+        private final AtomicInteger failedBatches = new AtomicInteger();
+
+        private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+
+        void succeeded(int size) {
+            rows.addAndGet(size);
+            batches.incrementAndGet();
+        }
+
+        void failed(int size, String failure) {
+            failedRows.addAndGet(size);
+            failedBatches.incrementAndGet();
+            failures.add(failure);
+        }
+
+        BulkWriteResult toResult(long elapsedMillis) {
+            return new BulkWriteResult(rows.get(), failedRows.get(), batches.get(), failedBatches.get(), elapsedMillis, new ArrayList<>(failures));
+        }
+    }
+
+    /**
+     * Writer of successive groups of elements, for elements that are not all in memory at once, with at most
+     * {@code maxInFlight} batches executed concurrently across the groups.
+     */
+    AsyncBatchWriter(CqlSession session, int maxInFlight) {
+        this.session = Objects.requireNonNull(session);
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Writes the elements, batches being cut when the sum of the weights of their elements reaches {@code maxBatchWeight}.
+     * Failed batches are reported in the result, they do not stop the other batches.
+     */
+    static <T> BulkWriteResult write(CqlSession session, Collection<T> elements, Function<T, String> partition,
+                                     Function<T, BoundStatement> bind, ToIntFunction<T> weigher,
+                                     int maxBatchWeight, int maxInFlight) {
+        AsyncBatchWriter writer = new AsyncBatchWriter(session, maxInFlight);
+        writer.add(elements, partition, bind, weigher, maxBatchWeight);
+        return writer.finish();
+    }
+
+    /**
+     * Starts writing a group of elements, batches being cut as by {@link #write}, and only waits for batches
+     * in flight to complete when there are already {@code maxInFlight} of them.
+     */
+    <T> void add(Collection<T> elements, Function<T, String> partition, Function<T, BoundStatement> bind,
+                 ToIntFunction<T> weigher, int maxBatchWeight) {
+        Map<String, List<T>> elementsByPartition = new LinkedHashMap<>();
+        for (T element : elements) {
+            elementsByPartition.computeIfAbsent(partition.apply(element), p -> new ArrayList<>()).add(element);
+        }
+
+        for (Map.Entry<String, List<T>> e : elementsByPartition.entrySet()) {
+            String partitionKey = e.getKey();
+            List<BatchableStatement<?>> batch = new ArrayList<>();
+            int weight = 0;
+            for (T element : e.getValue()) {
+                int elementWeight = weigher.applyAsInt(element);
+                if (!batch.isEmpty() && weight + elementWeight > maxBatchWeight) {
+                    execute(partitionKey, batch);
+                    batch = new ArrayList<>();
+                    weight = 0;
+                }
+                batch.add(bind.apply(element));
+                weight += elementWeight;
+            }
+            if (!batch.isEmpty()) {
+                execute(partitionKey, batch);
+            }
+        }
+    }
+
+    /**
+     * Waits for all the batches in flight to complete.
+     */
+    BulkWriteResult finish() {
+        acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+
+        BulkWriteResult result = progress.toResult(stopWatch.getTime(TimeUnit.MILLISECONDS));
+        LOGGER.info("{} rows written in {} batches in {} ms ({} rows/s), {} batches of {} rows failed",
+                result.getRows(), result.getBatches(), result.getElapsedMillis(), Math.round(result.getRowsPerSecond()),
+                result.getFailedBatches(), result.getFailedRows());
+        return result;
+    }
+
+    private void acquire(int permits) {
+        try {
+            inFlight.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to write a batch", e);
+        }
+    }
+
+    private void execute(String partitionKey, List<BatchableStatement<?>> statements) {
+        acquire(1);
+        BatchStatement batch = BatchStatement.newInstance(DefaultBatchType.UNLOGGED, statements);
+        int size = statements.size();
+        long start = System.nanoTime();
+        session.executeAsync(batch).whenComplete((resultSet, t) -> {
+            long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            if (t == null) {
+                progress.succeeded(size);
+                LOGGER.debug("Batch of {} rows written in partition '{}' in {} us", size, partitionKey, elapsedMicros);
+            } else {
+                progress.failed(size, "Batch of " + size + " rows in partition '" + partitionKey + "': " + t.getMessage());
+                LOGGER.error("Batch of {} rows failed in partition '{}' after {} us", size, partitionKey, elapsedMicros, t);
+            }
+            // released once the progress is updated, for the result to be complete once all the permits are acquired
+            inFlight.release();
+        });
+    }
+}
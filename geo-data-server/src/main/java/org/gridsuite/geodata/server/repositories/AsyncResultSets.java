@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server.repositories;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * Helpers to consume the pages of an asynchronous query as they are fetched by the driver,
+ * without ever holding the whole result in memory.
+ *
+ * @author agent <agent at local>
+ */
+final class AsyncResultSets {
+
+    private AsyncResultSets() {
+    }
+
+    /**
+     * Calls the consumer on every row of every page, the next page being requested only
+     * once the current one has been consumed. Rows of a same query are consumed sequentially.
+     */
+    static CompletableFuture<Void> forEachRow(CompletionStage<AsyncResultSet> resultSetStage, Consumer<Row> consumer) {
+        return resultSetStage.thenCompose(resultSet -> {
+            for (Row row : resultSet.currentPage()) {
+                consumer.accept(row);
+            }
+            return resultSet.hasMorePages()
+                    ? forEachRow(resultSet.fetchNextPage(), consumer)
+                    : CompletableFuture.<Void>completedFuture(null);
+        }).toCompletableFuture();
+    }
+}
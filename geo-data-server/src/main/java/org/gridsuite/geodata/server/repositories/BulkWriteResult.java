@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server.repositories;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk write: number of rows and batches written or failed, and the failure of each failed batch.
+ *
+ * @author agent <agent at local>
+ */
+@AllArgsConstructor
+@Getter
+@ToString
+public class BulkWriteResult {
+
+    private final long rows;
+
+    private final long failedRows;
+
+    private final int batches;
+
+    private final int failedBatches;
+
+    private final long elapsedMillis;
+
+    private final List<String> failures;
+
+    public boolean hasFailures() {
+        return failedBatches > 0;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis > 0 ? rows * 1000d / elapsedMillis : rows;
+    }
+
+    public BulkWriteResult merge(BulkWriteResult other) {
+        List<String> allFailures = new ArrayList<>(failures);
+        allFailures.addAll(other.failures);
+        return new BulkWriteResult(rows + other.rows, failedRows + other.failedRows, batches + other.batches,
+                failedBatches + other.failedBatches, elapsedMillis + other.elapsedMillis, allFailures);
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server.repositories;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.uuid.Uuids;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.util.UUID;
+
+/**
+ * Generations of data shared by all the instances of the server, a new generation being started each time the data
+ * are modified. An instance caching data compares the generation it has read them in with the stored one to know
+ * whether they have been modified through another instance.
+ *
+ * @author agent <agent at local>
+ */
+@Repository
+public class GeoDataGenerationRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeoDataGenerationRepository.class);
+
+    /**
+     * Name of the generation of the stored geo data.
+     */
+    public static final String GEO_DATA = "geo_data";
+
+    /**
+     * Generation of data never modified since the generations have been introduced.
+     */
+    public static final UUID INITIAL_GENERATION = new UUID(0, 0);
+
+    private static final String SELECT = "select generation from geo_data_generations where name = ?";
+
+    private static final String UPDATE = "update geo_data_generations set generation = ? where name = ?";
+
+    private static final String CREATE_TABLE = "create table if not exists geo_data_generations ("
+            + "name text, generation uuid, primary key (name))";
+
+    @Autowired
+    private CqlSession session;
+
+    private PreparedStatement select;
+
+    private PreparedStatement update;
+
+    /**
+     * The table is created in a keyspace created before it, before the statements using it are prepared.
+     */
+    @PostConstruct
+    void init() {
+        if (createTable()) {
+            LOGGER.info("Generations table created");
+        }
+        select = session.prepare(SELECT);
+        update = session.prepare(UPDATE);
+    }
+
+    /**
+     * Creates the generations table if it is missing in the keyspace, another instance of the server possibly
+     * creating it concurrently.
+     *
+     * @return true if the table has been created
+     */
+    public boolean createTable() {
+        boolean missing = session.getKeyspace()
+                .flatMap(keyspace -> session.getMetadata().getKeyspace(keyspace))
+                .map(keyspace -> keyspace.getTable("geo_data_generations").isEmpty())
+                .orElse(false);
+        if (missing) {
+            session.execute(CREATE_TABLE);
+        }
+        return missing;
+    }
+
+    /**
+     * Returns the current generation of the given data, {@link #INITIAL_GENERATION} if they have never been modified.
+     */
+    public UUID getGeneration(String name) {
+        Row row = session.execute(select.bind(name)).one();
+        UUID generation = row != null ? row.getUuid("generation") : null;
+        return generation != null ? generation : INITIAL_GENERATION;
+    }
+
+    /**
+     * Starts a new generation of the given data.
+     */
+    public UUID newGeneration(String name) {
+        UUID generation = Uuids.timeBased();
+        session.execute(update.bind(generation, name));
+        return generation;
+    }
+}
@@ -7,18 +7,30 @@
 package org.gridsuite.geodata.server.repositories;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.data.UdtValue;
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
 import org.gridsuite.geodata.extensions.Coordinate;
 import org.gridsuite.geodata.server.dto.LineGeoData;
 import com.powsybl.iidm.network.Country;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -27,18 +39,60 @@ import java.util.stream.Collectors;
 @Repository
 public class LineCustomRepository {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(LineCustomRepository.class);
+
+    private static final String SELECT_ALL = "select * from lines";
+
+    private static final String SELECT_BY_COUNTRY = "select * from lines where country = ?";
+
+    private static final String INSERT = "insert into lines (country, id, side1, otherCountry, substationStart, substationEnd, packedCoordinates, coordinates) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ADD_PACKED_COORDINATES = "alter table lines add packedCoordinates blob";
+
+    private static final String SELECT_LEGACY_COORDINATES = "select country, id, coordinates from lines";
+
+    private static final String UPDATE_PACKED_COORDINATES = "update lines set packedCoordinates = ?, coordinates = null where country = ? and id = ?";
+
+    private static final String PACKED_COORDINATES = "packedCoordinates";
+
+    private static final String COORDINATES = "coordinates";
+
     @Autowired
     private CqlSession session;
 
-    private static LineGeoData rowToLineGeoData(Row row) {
+    private PreparedStatement selectByCountry;
+
+    private PreparedStatement insert;
+
+    private PreparedStatement updatePackedCoordinates;
+
+    /**
+     * The lines are written in the packed coordinates column, which is added to a lines table created before it,
+     * before the statements using it are prepared.
+     */
+    @PostConstruct
+    void init() {
+        if (addPackedCoordinatesColumn()) {
+            LOGGER.info("Packed coordinates column added to the lines table");
+        }
+        selectByCountry = session.prepare(SELECT_BY_COUNTRY);
+        insert = session.prepare(INSERT);
+        updatePackedCoordinates = session.prepare(UPDATE_PACKED_COORDINATES);
+    }
+
+    static LineGeoData rowToLineGeoData(Row row) {
         String id = row.getString("id");
         boolean side1 = row.getBoolean("side1");
         Country country = Country.valueOf(row.getString("country"));
         Country otherCountry = Country.valueOf(row.getString("otherCountry"));
         String substationStart = row.getString("substationStart");
         String substationEnd = row.getString("substationEnd");
-        List<Coordinate> coordinates = row.getList("coordinates", UdtValue.class).stream().map(udtValue ->
-                new Coordinate(udtValue.getDouble("lat"), udtValue.getDouble("lon"))).collect(Collectors.toList());
+        ByteBuffer packedCoordinates = row.getColumnDefinitions().contains(PACKED_COORDINATES) ? row.getByteBuffer(PACKED_COORDINATES) : null;
+        // the coordinates list is only written by the instances older than the packed coordinates column, the newer
+        // ones removing it on every write: when there is one, it is the latest write of the line
+        List<Coordinate> coordinates = packedCoordinates != null && row.isNull(COORDINATES)
+                ? PackedCoordinates.decode(packedCoordinates)
+                : toCoordinates(row.getList(COORDINATES, UdtValue.class));
         return LineGeoData.builder()
                 .id(id)
                 .country1(side1 ? country : otherCountry)
@@ -49,11 +103,133 @@ public class LineCustomRepository {
                 .build();
     }
 
+    private static List<Coordinate> toCoordinates(List<UdtValue> udtValues) {
+        return udtValues.stream().map(udtValue -> new Coordinate(udtValue.getDouble("lat"), udtValue.getDouble("lon"))).collect(Collectors.toList());
+    }
+
+    /**
+     * Reads the lines of one country partition, page by page.
+     */
+    public CompletableFuture<Map<String, LineGeoData>> getLinesAsync(Country country) {
+        Map<String, LineGeoData> lines = new HashMap<>();
+        return AsyncResultSets.forEachRow(session.executeAsync(selectByCountry.bind(country.toString())),
+            row -> lines.put(row.getString("id"), rowToLineGeoData(row)))
+                .thenApply(v -> lines);
+    }
+
+    /**
+     * Reads the lines of the given countries, querying all the country partitions concurrently.
+     * A line between two requested countries is stored in both partitions but is returned once.
+     */
+    public Map<String, LineGeoData> getLines(Set<Country> countries) {
+        List<CompletableFuture<Map<String, LineGeoData>>> reads = countries.stream()
+                .map(this::getLinesAsync)
+                .collect(Collectors.toList());
+        Map<String, LineGeoData> lines = new HashMap<>();
+        for (CompletableFuture<Map<String, LineGeoData>> read : reads) {
+            lines.putAll(read.join());
+        }
+        return lines;
+    }
+
+    /**
+     * Reads the lines of all the countries.
+     */
     public Map<String, LineGeoData> getLines() {
-        ResultSet result = session.execute("select * from lines");
-        List<Row> rows = result.all();
-        return rows.stream()
-                .map(LineCustomRepository::rowToLineGeoData)
-                .collect(Collectors.toMap(LineGeoData::getId, Function.identity()));
+        Map<String, LineGeoData> lines = new HashMap<>();
+        AsyncResultSets.forEachRow(session.executeAsync(SELECT_ALL),
+            row -> lines.computeIfAbsent(row.getString("id"), id -> rowToLineGeoData(row)))
+                .join();
+        return lines;
+    }
+
+    private static BoundStatement bind(PreparedStatement statement, LineEntity line) {
+        BoundStatementBuilder builder = statement.boundStatementBuilder()
+                .setString(0, line.getCountry())
+                .setString(1, line.getId())
+                .setBoolean(2, line.isSide1())
+                .setString(3, line.getOtherCountry());
+        // null columns are left unset, as the repository does, not to write tombstones
+        if (line.getSubstationStart() != null) {
+            builder.setString(4, line.getSubstationStart());
+        }
+        if (line.getSubstationEnd() != null) {
+            builder.setString(5, line.getSubstationEnd());
+        }
+        if (line.getPackedCoordinates() != null) {
+            builder.setByteBuffer(6, line.getPackedCoordinates());
+        }
+        // except the coordinates list, removed so that a list written before the packed coordinates column
+        // neither remains in the table nor shadows the packed coordinates
+        builder.setToNull(7);
+        return builder.build();
+    }
+
+    /**
+     * Writes the lines as unlogged batches of lines of a same country holding at most {@code maxBatchCoordinates}
+     * coordinates (a longer line being written alone), with at most {@code maxInFlight} batches executed concurrently.
+     */
+    public BulkWriteResult saveLines(Collection<LineEntity> lines, int maxBatchCoordinates, int maxInFlight) {
+        return AsyncBatchWriter.write(session, lines, LineEntity::getCountry,
+            l -> bind(insert, l),
+            l -> l.getPackedCoordinates() != null ? PackedCoordinates.getCount(l.getPackedCoordinates()) + 1 : 1, maxBatchCoordinates, maxInFlight);
+    }
+
+    /**
+     * Adds the packed coordinates column to a lines table created before it, another instance of the server
+     * possibly adding it concurrently.
+     *
+     * @return true if the column has been added
+     */
+    public boolean addPackedCoordinatesColumn() {
+        boolean missing = session.getKeyspace()
+                .flatMap(keyspace -> session.getMetadata().getKeyspace(keyspace))
+                .flatMap(keyspace -> keyspace.getTable("lines"))
+                .map(table -> table.getColumn("packedcoordinates").isEmpty())
+                .orElse(false);
+        if (!missing) {
+            return false;
+        }
+        try {
+            session.execute(ADD_PACKED_COORDINATES);
+            return true;
+        } catch (InvalidQueryException e) {
+            LOGGER.info("Packed coordinates column not added: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Rewrites the coordinates lists, written before the packed coordinates column or by an instance older than it,
+     * into the packed coordinates column, the coordinates lists being removed. A line having both has been rewritten
+     * by an older instance after it has been packed: its list is the latest write and is packed again.
+     * The lines are read page by page, only the lines of one page being held in memory.
+     */
+    public BulkWriteResult packLegacyCoordinates(int maxBatchCoordinates, int maxInFlight) {
+        // each page is written as soon as it is read, the writes of a page overlapping with the reads of the next ones
+        AsyncBatchWriter writer = new AsyncBatchWriter(session, maxInFlight);
+        ResultSet resultSet = session.execute(SELECT_LEGACY_COORDINATES);
+        List<LineEntity> legacyLines = new ArrayList<>();
+        for (Row row : resultSet) {
+            if (!row.isNull(COORDINATES)) {
+                legacyLines.add(LineEntity.builder()
+                        .country(row.getString("country"))
+                        .id(row.getString("id"))
+                        .packedCoordinates(PackedCoordinates.encode(toCoordinates(row.getList(COORDINATES, UdtValue.class))))
+                        .build());
+            }
+            if (resultSet.getAvailableWithoutFetching() == 0) {
+                writeLegacyLines(writer, legacyLines, maxBatchCoordinates);
+                legacyLines = new ArrayList<>();
+            }
+        }
+        writeLegacyLines(writer, legacyLines, maxBatchCoordinates);
+        return writer.finish();
+    }
+
+    private void writeLegacyLines(AsyncBatchWriter writer, List<LineEntity> legacyLines, int maxBatchCoordinates) {
+        writer.add(legacyLines, LineEntity::getCountry,
+            l -> updatePackedCoordinates.bind(l.getPackedCoordinates(), l.getCountry(), l.getId()),
+            l -> PackedCoordinates.getCount(l.getPackedCoordinates()) + 1, maxBatchCoordinates);
     }
 }
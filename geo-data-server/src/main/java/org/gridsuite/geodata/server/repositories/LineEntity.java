@@ -11,6 +11,7 @@ import lombok.*;
 import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
 import org.springframework.data.cassandra.core.mapping.*;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
@@ -39,8 +40,16 @@ public class LineEntity {
     @Builder.Default
     private String substationEnd = "";
 
+    /**
+     * Coordinates of the lines written before the packed coordinates column, read until they are migrated.
+     */
     private List<CoordinateEntity> coordinates;
 
+    /**
+     * Coordinates encoded by {@link PackedCoordinates}.
+     */
+    private ByteBuffer packedCoordinates;
+
     public static LineEntity create(LineGeoData l, boolean side1) {
         return LineEntity.builder()
                 .country(side1 ? l.getCountry1().toString() : l.getCountry2().toString())
@@ -49,7 +58,7 @@ public class LineEntity {
                 .id(l.getId())
                 .substationStart(l.getSubstationStart())
                 .substationEnd(l.getSubstationEnd())
-                .coordinates(CoordinateEntity.create(l.getCoordinates()))
+                .packedCoordinates(l.getCoordinates() != null ? PackedCoordinates.encode(l.getCoordinates()) : null)
                 .build();
     }
 }
@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server.repositories;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DriverException;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Snapshots of the substations and lines computed for a network and a set of countries, encoded by the caller.
+ * The snapshots of a network are a single partition, each snapshot being split in chunks stored as clustering rows,
+ * so that a large snapshot is not a single large mutation.
+ * <p>
+ * A snapshot has a header row, written after its chunks, holding the number of chunks and an identifier shared
+ * with them: a snapshot being written, or written concurrently by another instance, is never read partially.
+ * Each snapshot is saved with the generation of the stored geo data it has been computed from, and is only returned
+ * for this generation: saving geo data starts a new generation, see {@link GeoDataGenerationRepository}, making all
+ * the snapshots obsolete with a single write, the obsolete snapshots being overwritten or expiring with their
+ * time to live.
+ *
+ * @author agent <agent at local>
+ */
+@Repository
+public class NetworkSnapshotRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NetworkSnapshotRepository.class);
+
+    public static final String SUBSTATIONS = "substations";
+
+    public static final String LINES = "lines";
+
+    private static final int HEADER = -1;
+
+    private static final int CHUNKS_PER_PAGE = 8;
+
+    private static final String SELECT = "select chunk, snapshotId, generation, chunks, data from network_snapshots "
+            + "where networkUuid = ? and countries = ? and resource = ?";
+
+    private static final String INSERT_CHUNK = "insert into network_snapshots (networkUuid, countries, resource, chunk, snapshotId, data) "
+            + "values (?, ?, ?, ?, ?, ?) using ttl ?";
+
+    private static final String INSERT_HEADER = "insert into network_snapshots (networkUuid, countries, resource, chunk, snapshotId, generation, chunks) "
+            + "values (?, ?, ?, " + HEADER + ", ?, ?, ?) using ttl ?";
+
+    private static final String DELETE = "delete from network_snapshots where networkUuid = ?";
+
+    private static final String CREATE_TABLE = "create table if not exists network_snapshots ("
+            + "networkUuid uuid, countries text, resource text, chunk int, snapshotId uuid, generation uuid, chunks int, data blob, "
+            + "primary key (networkUuid, countries, resource, chunk))";
+
+    @Autowired
+    private CqlSession session;
+
+    private PreparedStatement select;
+
+    private PreparedStatement insertChunk;
+
+    private PreparedStatement insertHeader;
+
+    private PreparedStatement delete;
+
+    /**
+     * The snapshots table is created in a keyspace created before it, so that snapshots can be enabled
+     * on an existing deployment, before the statements using it are prepared.
+     */
+    @PostConstruct
+    void init() {
+        if (createTable()) {
+            LOGGER.info("Snapshots table created");
+        }
+        select = session.prepare(SELECT);
+        insertChunk = session.prepare(INSERT_CHUNK);
+        insertHeader = session.prepare(INSERT_HEADER);
+        delete = session.prepare(DELETE);
+    }
+
+    private static void checkResource(String resource) {
+        if (!SUBSTATIONS.equals(resource) && !LINES.equals(resource)) {
+            throw new IllegalArgumentException("Unknown snapshot resource " + resource);
+        }
+    }
+
+    /**
+     * Creates the snapshots table if it is missing in the keyspace, another instance of the server possibly
+     * creating it concurrently.
+     *
+     * @return true if the table has been created
+     */
+    public boolean createTable() {
+        boolean missing = session.getKeyspace()
+                .flatMap(keyspace -> session.getMetadata().getKeyspace(keyspace))
+                .map(keyspace -> keyspace.getTable("network_snapshots").isEmpty())
+                .orElse(false);
+        if (missing) {
+            session.execute(CREATE_TABLE);
+        }
+        return missing;
+    }
+
+    /**
+     * Returns the chunks of the snapshot of a resource, {@link #SUBSTATIONS} or {@link #LINES}, null if there is none
+     * for the given generation or if it is not completely written.
+     */
+    public List<ByteBuffer> get(String resource, UUID networkUuid, String countries, UUID generation) {
+        checkResource(resource);
+        // the header comes first, the chunks being ordered by their number
+        UUID snapshotId = null;
+        int chunkCount = 0;
+        List<ByteBuffer> chunks = new ArrayList<>();
+        // a few chunks per page, not to receive the whole snapshot in a single response
+        for (Row row : session.execute(select.bind(networkUuid, countries, resource).setPageSize(CHUNKS_PER_PAGE))) {
+            int chunk = row.getInt("chunk");
+            if (chunk == HEADER) {
+                if (!generation.equals(row.getUuid("generation"))) {
+                    return null;
+                }
+                snapshotId = row.getUuid("snapshotId");
+                chunkCount = row.getInt("chunks");
+            } else if (snapshotId == null || chunk >= chunkCount) {
+                // no header, or chunks of a larger previous snapshot
+                break;
+            } else if (chunk != chunks.size() || !snapshotId.equals(row.getUuid("snapshotId"))) {
+                // missing chunk or chunk of another snapshot
+                return null;
+            } else {
+                chunks.add(row.getByteBuffer("data"));
+            }
+        }
+        return snapshotId != null && chunks.size() == chunkCount ? chunks : null;
+    }
+
+    /**
+     * Saves the snapshot of a resource, the chunks being written concurrently, then the header.
+     */
+    public void save(String resource, UUID networkUuid, String countries, UUID generation, List<ByteBuffer> chunks, int timeToLiveSeconds) {
+        checkResource(resource);
+        UUID snapshotId = UUID.randomUUID();
+        List<CompletableFuture<?>> writes = new ArrayList<>(chunks.size());
+        for (int chunk = 0; chunk < chunks.size(); chunk++) {
+            writes.add(session.executeAsync(insertChunk.bind(networkUuid, countries, resource, chunk, snapshotId, chunks.get(chunk), timeToLiveSeconds))
+                    .toCompletableFuture());
+        }
+        try {
+            CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DriverException) {
+                throw (DriverException) e.getCause();
+            }
+            throw e;
+        }
+        session.execute(insertHeader.bind(networkUuid, countries, resource, snapshotId, generation, chunks.size(), timeToLiveSeconds));
+    }
+
+    public void delete(UUID networkUuid) {
+        session.execute(delete.bind(networkUuid));
+    }
+}
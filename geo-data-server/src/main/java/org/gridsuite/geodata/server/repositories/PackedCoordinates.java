@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server.repositories;
+
+import org.gridsuite.geodata.extensions.Coordinate;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Encoding of the coordinates of a line in a single blob: a format byte, the number of coordinates, then
+ * for each coordinate the difference of its latitude and longitude with the previous coordinate, in fixed point
+ * of 1e-7 degree (about a centimeter). All integers are zigzag varints, consecutive coordinates of a line being
+ * close a coordinate usually takes 4 to 6 bytes, instead of a user defined type value of two doubles.
+ * Coordinates are decoded into a single array of interleaved latitudes and longitudes.
+ *
+ * @author agent <agent at local>
+ */
+final class PackedCoordinates {
+
+    static final byte FORMAT = 1;
+
+    static final double SCALE = 1e7;
+
+    private PackedCoordinates() {
+    }
+
+    private static long toFixedPoint(double degrees) {
+        return Math.round(degrees * SCALE);
+    }
+
+    private static void writeVarint(ByteBuffer buffer, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        buffer.put((byte) zigzag);
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 63) {
+                throw new IllegalArgumentException("Malformed packed coordinates");
+            }
+            b = buffer.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    static ByteBuffer encode(List<Coordinate> coordinates) {
+        // 1 + 10 bytes of header, at most 10 bytes per varint
+        ByteBuffer buffer = ByteBuffer.allocate(11 + coordinates.size() * 20);
+        buffer.put(FORMAT);
+        writeVarint(buffer, coordinates.size());
+        long lat = 0;
+        long lon = 0;
+        for (Coordinate coordinate : coordinates) {
+            long nextLat = toFixedPoint(coordinate.getLat());
+            long nextLon = toFixedPoint(coordinate.getLon());
+            writeVarint(buffer, nextLat - lat);
+            writeVarint(buffer, nextLon - lon);
+            lat = nextLat;
+            lon = nextLon;
+        }
+        buffer.flip();
+        return ByteBuffer.wrap(Arrays.copyOf(buffer.array(), buffer.limit()));
+    }
+
+    private static ByteBuffer readHeader(ByteBuffer bytes) {
+        ByteBuffer buffer = bytes.duplicate();
+        if (buffer.get() != FORMAT) {
+            throw new IllegalArgumentException("Unknown packed coordinates format");
+        }
+        return buffer;
+    }
+
+    /**
+     * Number of coordinates, read from the header only.
+     */
+    static int getCount(ByteBuffer bytes) {
+        return Math.toIntExact(readVarint(readHeader(bytes)));
+    }
+
+    /**
+     * Decodes into interleaved latitudes and longitudes.
+     */
+    static double[] decodeToArray(ByteBuffer bytes) {
+        ByteBuffer buffer = readHeader(bytes);
+        int count = Math.toIntExact(readVarint(buffer));
+        double[] coordinates = new double[count * 2];
+        long lat = 0;
+        long lon = 0;
+        for (int i = 0; i < coordinates.length; i += 2) {
+            lat += readVarint(buffer);
+            lon += readVarint(buffer);
+            coordinates[i] = lat / SCALE;
+            coordinates[i + 1] = lon / SCALE;
+        }
+        return coordinates;
+    }
+
+    /**
+     * Decodes into a read only list backed by the array of interleaved latitudes and longitudes, a {@link Coordinate}
+     * being created at each access: the cached lines hold 16 bytes per coordinate instead of a coordinate object.
+     */
+    static List<Coordinate> decode(ByteBuffer bytes) {
+        return new CoordinateList(decodeToArray(bytes));
+    }
+
+    private static final class CoordinateList extends AbstractList<Coordinate> implements RandomAccess {
+
+        private final double[] coordinates;
+
+        private CoordinateList(double[] coordinates) {
+            this.coordinates = coordinates;
+        }
+
+        @Override
+        public Coordinate get(int index) {
+            Objects.checkIndex(index, size());
+            return new Coordinate(coordinates[2 * index], coordinates[2 * index + 1]);
+        }
+
+        @Override
+        public int size() {
+            return coordinates.length / 2;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server.repositories;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.data.UdtValue;
+import com.datastax.oss.driver.api.core.type.UserDefinedType;
+import com.powsybl.iidm.network.Country;
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * @author agent <agent at local>
+ */
+@Repository
+public class SubstationCustomRepository {
+
+    private static final String SELECT_ALL = "select * from substations";
+
+    private static final String SELECT_BY_COUNTRY = "select * from substations where country = ?";
+
+    private static final String INSERT = "insert into substations (country, id, coordinate) values (?, ?, ?)";
+
+    @Autowired
+    private CqlSession session;
+
+    private PreparedStatement selectByCountry;
+
+    private PreparedStatement insert;
+
+    private UserDefinedType coordinateType;
+
+    @PostConstruct
+    void init() {
+        selectByCountry = session.prepare(SELECT_BY_COUNTRY);
+        insert = session.prepare(INSERT);
+        coordinateType = (UserDefinedType) insert.getVariableDefinitions().get(2).getType();
+    }
+
+    private static SubstationGeoData rowToSubstationGeoData(Row row) {
+        UdtValue coordinate = row.getUdtValue("coordinate");
+        return SubstationGeoData.builder()
+                .id(row.getString("id"))
+                .country(Country.valueOf(row.getString("country")))
+                .coordinate(new Coordinate(coordinate.getDouble("lat"), coordinate.getDouble("lon")))
+                .build();
+    }
+
+    /**
+     * Reads the substations of one country partition, page by page.
+     */
+    public CompletableFuture<Map<String, SubstationGeoData>> getSubstationsAsync(Country country) {
+        Map<String, SubstationGeoData> substations = new HashMap<>();
+        return AsyncResultSets.forEachRow(session.executeAsync(selectByCountry.bind(country.toString())),
+            row -> substations.put(row.getString("id"), rowToSubstationGeoData(row)))
+                .thenApply(v -> substations);
+    }
+
+    /**
+     * Reads the substations of the given countries, querying all the country partitions concurrently.
+     */
+    public Map<String, SubstationGeoData> getSubstations(Set<Country> countries) {
+        List<CompletableFuture<Map<String, SubstationGeoData>>> reads = countries.stream()
+                .map(this::getSubstationsAsync)
+                .collect(Collectors.toList());
+        Map<String, SubstationGeoData> substations = new HashMap<>();
+        for (CompletableFuture<Map<String, SubstationGeoData>> read : reads) {
+            substations.putAll(read.join());
+        }
+        return substations;
+    }
+
+    /**
+     * Reads the substations of all the countries.
+     */
+    public Map<String, SubstationGeoData> getSubstations() {
+        Map<String, SubstationGeoData> substations = new HashMap<>();
+        AsyncResultSets.forEachRow(session.executeAsync(SELECT_ALL),
+            row -> substations.put(row.getString("id"), rowToSubstationGeoData(row)))
+                .join();
+        return substations;
+    }
+
+    /**
+     * Writes the substations as unlogged batches of at most {@code batchSize} substations of a same country,
+     * with at most {@code maxInFlight} batches executed concurrently.
+     */
+    public BulkWriteResult saveSubstations(Collection<SubstationEntity> substations, int batchSize, int maxInFlight) {
+        return AsyncBatchWriter.write(session, substations, SubstationEntity::getCountry,
+            s -> insert.bind(s.getCountry(), s.getId(), coordinateType.newValue(s.getCoordinate().getLat(), s.getCoordinate().getLon())),
+            s -> 1, batchSize, maxInFlight);
+    }
+}
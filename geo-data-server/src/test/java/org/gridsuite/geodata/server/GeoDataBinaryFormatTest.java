@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.powsybl.iidm.network.Country;
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class GeoDataBinaryFormatTest {
+
+    @Test
+    public void testSubstations() throws IOException {
+        List<SubstationGeoData> substations = List.of(
+                new SubstationGeoData("P1", Country.FR, new Coordinate(48.8566140, 2.3522219)),
+                new SubstationGeoData("P2", Country.BE, new Coordinate(-50.8503396, -4.3517103)),
+                new SubstationGeoData("P3", null, new Coordinate(0, 180)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GeoDataBinaryWriter writer = GeoDataBinaryWriter.forSubstations(out)) {
+            for (SubstationGeoData substation : substations) {
+                writer.write(substation);
+            }
+        }
+
+        List<SubstationGeoData> read = GeoDataBinaryReader.readSubstations(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(3, read.size());
+        for (int i = 0; i < substations.size(); i++) {
+            assertEquals(substations.get(i).getId(), read.get(i).getId());
+            assertEquals(substations.get(i).getCountry(), read.get(i).getCountry());
+            assertEquals(substations.get(i).getCoordinate().getLat(), read.get(i).getCoordinate().getLat(), 1e-7);
+            assertEquals(substations.get(i).getCoordinate().getLon(), read.get(i).getCoordinate().getLon(), 1e-7);
+        }
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        List<Coordinate> coordinates = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            coordinates.add(new Coordinate(45 + i * 0.0012345, 3 - i * 0.0023456));
+        }
+        List<LineGeoData> lines = List.of(
+                new LineGeoData("NHV1_NHV2_1", Country.FR, Country.BE, "P1", "P2", coordinates),
+                new LineGeoData("NHV1_NHV2_2", Country.FR, null, null, "P2", new ArrayList<>()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GeoDataBinaryWriter writer = GeoDataBinaryWriter.forLines(out)) {
+            for (LineGeoData line : lines) {
+                writer.write(line);
+            }
+        }
+        byte[] binary = out.toByteArray();
+
+        List<LineGeoData> read = GeoDataBinaryReader.readLines(new ByteArrayInputStream(binary));
+        assertEquals(2, read.size());
+        assertEquals("NHV1_NHV2_1", read.get(0).getId());
+        assertEquals(Country.FR, read.get(0).getCountry1());
+        assertEquals(Country.BE, read.get(0).getCountry2());
+        assertEquals("P1", read.get(0).getSubstationStart());
+        assertEquals("P2", read.get(0).getSubstationEnd());
+        assertEquals(100, read.get(0).getCoordinates().size());
+        for (int i = 0; i < coordinates.size(); i++) {
+            assertEquals(coordinates.get(i).getLat(), read.get(0).getCoordinates().get(i).getLat(), 1e-7);
+            assertEquals(coordinates.get(i).getLon(), read.get(0).getCoordinates().get(i).getLon(), 1e-7);
+        }
+        assertNull(read.get(1).getCountry2());
+        assertNull(read.get(1).getSubstationStart());
+        assertTrue(read.get(1).getCoordinates().isEmpty());
+
+        // several times smaller than JSON
+        byte[] json = new ObjectMapper().writeValueAsBytes(lines);
+        assertTrue(binary.length * 5 < json.length);
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GeoDataBinaryWriter.forLines(out).close();
+        assertTrue(GeoDataBinaryReader.readLines(new ByteArrayInputStream(out.toByteArray())).isEmpty());
+        assertThrows(IOException.class, () -> GeoDataBinaryReader.readSubstations(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    public void testAcceptsBinary() {
+        assertFalse(GeoDataController.acceptsBinary(null));
+        assertFalse(GeoDataController.acceptsBinary("*/*"));
+        assertFalse(GeoDataController.acceptsBinary("application/json"));
+        assertTrue(GeoDataController.acceptsBinary(GeoDataBinaryWriter.MEDIA_TYPE_VALUE));
+        assertTrue(GeoDataController.acceptsBinary(GeoDataBinaryWriter.MEDIA_TYPE_VALUE + ", application/json;q=0.5"));
+        assertFalse(GeoDataController.acceptsBinary(GeoDataBinaryWriter.MEDIA_TYPE_VALUE + ";q=0.5, application/json"));
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.powsybl.iidm.network.Country;
+import com.powsybl.network.store.client.NetworkStoreService;
+import org.gridsuite.geodata.server.repositories.CoordinateEntity;
+import org.gridsuite.geodata.server.repositories.GeoDataGenerationRepository;
+import org.gridsuite.geodata.server.repositories.SubstationCustomRepository;
+import org.gridsuite.geodata.server.repositories.SubstationEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.ContextHierarchy;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+@RunWith(SpringRunner.class)
+@ContextHierarchy({
+    @ContextConfiguration(classes = GeoDataApplication.class)
+    })
+@TestPropertySource(properties = "network-geo-data.cache.generation-refresh=0s")
+public class GeoDataCacheTest extends AbstractEmbeddedCassandraSetup {
+
+    @Autowired
+    private GeoDataCache geoDataCache;
+
+    @Autowired
+    private SubstationCustomRepository substationCustomRepository;
+
+    @Autowired
+    private GeoDataGenerationRepository generationRepository;
+
+    @MockBean
+    private NetworkStoreService networkStoreService;
+
+    @Before
+    public void setUp() {
+        geoDataCache.invalidateAll();
+    }
+
+    private void saveSubstation(String id, double lat) {
+        substationCustomRepository.saveSubstations(List.of(SubstationEntity.builder()
+                .id(id)
+                .country("FR")
+                .coordinate(new CoordinateEntity(lat, 1))
+                .build()), 100, 1);
+    }
+
+    @Test
+    public void testSavedThroughAnotherInstance() {
+        saveSubstation("P1", 1);
+        assertEquals(Set.of("P1"), geoDataCache.getSubstations(Set.of(Country.FR)).keySet());
+        long version = geoDataCache.getVersion();
+
+        // saved through another instance, still cached until the generation changes
+        saveSubstation("P2", 2);
+        assertEquals(Set.of("P1"), geoDataCache.getSubstations(Set.of(Country.FR)).keySet());
+        assertEquals(version, geoDataCache.getVersion());
+
+        UUID generation = generationRepository.newGeneration(GeoDataGenerationRepository.GEO_DATA);
+        assertEquals(Set.of("P1", "P2"), geoDataCache.getSubstations(Set.of(Country.FR)).keySet());
+        assertEquals(generation, geoDataCache.getGeneration());
+        assertTrue(geoDataCache.getVersion() > version);
+    }
+
+    @Test
+    public void testNetworkGeneration() {
+        UUID networkUuid = UUID.randomUUID();
+        assertEquals(GeoDataGenerationRepository.INITIAL_GENERATION, geoDataCache.getNetworkGeneration(networkUuid));
+
+        geoDataCache.newNetworkGeneration(networkUuid);
+        UUID generation = geoDataCache.getNetworkGeneration(networkUuid);
+        assertNotEquals(GeoDataGenerationRepository.INITIAL_GENERATION, generation);
+        assertEquals(generationRepository.getGeneration(networkUuid.toString()), generation);
+
+        // started through another instance
+        UUID newGeneration = generationRepository.newGeneration(networkUuid.toString());
+        assertEquals(newGeneration, geoDataCache.getNetworkGeneration(networkUuid));
+    }
+
+    @Test
+    public void testNewGeneration() {
+        UUID generation = geoDataCache.getGeneration();
+        saveSubstation("P1", 1);
+        assertEquals(Set.of("P1"), geoDataCache.getSubstations(Set.of(Country.FR)).keySet());
+
+        saveSubstation("P2", 2);
+        geoDataCache.newGeneration();
+        assertNotEquals(generation, geoDataCache.getGeneration());
+        assertEquals(generationRepository.getGeneration(GeoDataGenerationRepository.GEO_DATA), geoDataCache.getGeneration());
+        assertEquals(Set.of("P1", "P2"), geoDataCache.getSubstations(Set.of(Country.FR)).keySet());
+    }
+}
@@ -11,28 +11,57 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.powsybl.iidm.network.Country;
 import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
 import com.powsybl.network.store.client.NetworkStoreService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.ImportSummary;
 import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.NetworkGeoData;
 import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.gridsuite.geodata.server.repositories.BulkWriteResult;
 import org.gridsuite.geodata.server.repositories.LineCustomRepository;
 import org.gridsuite.geodata.server.repositories.LineRepository;
+import org.gridsuite.geodata.server.repositories.GeoDataGenerationRepository;
+import org.gridsuite.geodata.server.repositories.NetworkSnapshotRepository;
+import org.gridsuite.geodata.server.repositories.SubstationCustomRepository;
 import org.gridsuite.geodata.server.repositories.SubstationRepository;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static com.powsybl.network.store.model.NetworkStoreApi.VERSION;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -42,8 +71,21 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @RunWith(SpringRunner.class)
 @WebMvcTest(GeoDataController.class)
+@Import({GeoDataMetrics.class, CompressedResponseCache.class, GeoDataControllerTest.MetricsConfig.class})
 public class GeoDataControllerTest {
 
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -53,6 +95,12 @@ public class GeoDataControllerTest {
     @MockBean
     private GeoDataService geoDataService;
 
+    @MockBean
+    private GeoDataCache geoDataCache;
+
+    @MockBean
+    private GeoDataImporter geoDataImporter;
+
     @MockBean
     private CassandraConfig cassandraConfig;
 
@@ -65,30 +113,198 @@ public class GeoDataControllerTest {
     @MockBean
     private SubstationRepository substationRepository;
 
+    @MockBean
+    private SubstationCustomRepository substationCustomRepository;
+
     @MockBean
     private LineRepository lineRepository;
 
     @MockBean
     private LineCustomRepository lineCustomRepository;
 
+    @MockBean
+    private NetworkSnapshotRepository networkSnapshotRepository;
+
+    @MockBean
+    private GeoDataGenerationRepository generationRepository;
+
     @Test
     public void test() throws Exception {
         UUID networkUuid = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
 
         given(service.getNetwork(networkUuid)).willReturn(EurostagTutorialExample1Factory.create());
 
-        mvc.perform(get("/" + VERSION + "/substations?networkUuid=" + networkUuid)
+        MvcResult result = mvc.perform(get("/" + VERSION + "/substations?networkUuid=" + networkUuid)
                 .contentType(APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(0)));
 
-        mvc.perform(get("/" + VERSION + "/lines?networkUuid=" + networkUuid)
+        result = mvc.perform(get("/" + VERSION + "/lines?networkUuid=" + networkUuid)
                 .contentType(APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(0)));
 
+        given(geoDataService.streamLines(networkUuid, Set.of(Country.FR))).willReturn(Stream.of(
+                LineGeoData.builder()
+                        .id("line1")
+                        .country1(Country.FR)
+                        .country2(Country.FR)
+                        .substationStart("sub1")
+                        .substationEnd("sub2")
+                        .coordinates(List.of(new Coordinate(1, 2), new Coordinate(3, 4)))
+                        .build(),
+                LineGeoData.builder()
+                        .id("line2")
+                        .country1(Country.FR)
+                        .country2(Country.FR)
+                        .substationStart("sub2")
+                        .substationEnd("sub3")
+                        .coordinates(List.of(new Coordinate(3, 4), new Coordinate(5, 6)))
+                        .build()));
+        result = mvc.perform(get("/" + VERSION + "/lines?networkUuid=" + networkUuid + "&countries=FR")
+                .contentType(APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value("line1"))
+                .andExpect(jsonPath("$[1].coordinates[1].lat").value(5.0));
+
+        given(geoDataService.streamLines(networkUuid, Set.of(Country.FR))).willReturn(Stream.of(
+                LineGeoData.builder()
+                        .id("line1")
+                        .country1(Country.FR)
+                        .country2(Country.FR)
+                        .substationStart("sub1")
+                        .substationEnd("sub2")
+                        .coordinates(List.of(new Coordinate(1, 2), new Coordinate(3, 4)))
+                        .build()));
+        result = mvc.perform(get("/" + VERSION + "/lines?networkUuid=" + networkUuid + "&countries=FR")
+                .accept(GeoDataBinaryWriter.MEDIA_TYPE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] binary = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(GeoDataBinaryWriter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<LineGeoData> lines = GeoDataBinaryReader.readLines(new ByteArrayInputStream(binary));
+        assertEquals(1, lines.size());
+        assertEquals("line1", lines.get(0).getId());
+        assertEquals(List.of(new Coordinate(1, 2), new Coordinate(3, 4)), lines.get(0).getCoordinates());
+
+        assertEquals(2, meterRegistry.get(GeoDataMetrics.SERIALIZATION).tags("resource", "lines", "format", "json").timer().count());
+        assertEquals(1, meterRegistry.get(GeoDataMetrics.SERIALIZATION).tags("resource", "lines", "format", "binary").timer().count());
+        assertEquals(1, meterRegistry.get(GeoDataMetrics.SERIALIZATION).tags("resource", "substations", "format", "json").timer().count());
+
+        given(geoDataService.getSubstations(networkUuid, Collections.emptySet(), new BoundingBox(1, 2, 3, 4))).willReturn(List.of(
+                new SubstationGeoData("sub1", Country.FR, new Coordinate(2, 3))));
+        result = mvc.perform(get("/" + VERSION + "/substations?networkUuid=" + networkUuid + "&bbox=1,2,3,4"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value("sub1"));
+
+        given(geoDataService.streamLines(networkUuid, Set.of(Country.FR), new BoundingBox(1, 2, 3, 4))).willReturn(Stream.of(
+                LineGeoData.builder()
+                        .id("line1")
+                        .country1(Country.FR)
+                        .country2(Country.FR)
+                        .coordinates(List.of(new Coordinate(1, 2), new Coordinate(3, 4)))
+                        .build()));
+        result = mvc.perform(get("/" + VERSION + "/lines?networkUuid=" + networkUuid + "&countries=FR&bbox=1,2,3,4"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value("line1"));
+
+        given(geoDataService.streamLines(networkUuid, Collections.emptySet(), 6, null)).willReturn(Stream.of(
+                LineGeoData.builder()
+                        .id("line1")
+                        .country1(Country.FR)
+                        .country2(Country.FR)
+                        .coordinates(List.of(new Coordinate(1, 2), new Coordinate(3, 4)))
+                        .build()));
+        result = mvc.perform(get("/" + VERSION + "/lines?networkUuid=" + networkUuid + "&tolerance=0.03"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mvc.perform(get("/" + VERSION + "/lines?networkUuid=" + networkUuid + "&zoom=6&tolerance=0.03"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/" + VERSION + "/lines?networkUuid=" + networkUuid + "&zoom=-1"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/" + VERSION + "/lines?networkUuid=" + networkUuid + "&bbox=3,2,1,4"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/" + VERSION + "/substations?networkUuid=" + networkUuid + "&bbox=1,2,3"))
+                .andExpect(status().isBadRequest());
+
+        given(geoDataService.getTile(networkUuid, 5, 16, 11)).willReturn(new byte[] {1, 2, 3});
+        given(geoDataService.getTile(networkUuid, 5, 16, 12)).willReturn(new byte[0]);
+        mvc.perform(get("/" + VERSION + "/tiles/5/16/11.mvt?networkUuid=" + networkUuid))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(VectorTileEncoder.MEDIA_TYPE))
+                .andExpect(content().bytes(new byte[] {1, 2, 3}));
+        mvc.perform(get("/" + VERSION + "/tiles/5/16/12.mvt?networkUuid=" + networkUuid))
+                .andExpect(status().isNoContent());
+        mvc.perform(get("/" + VERSION + "/tiles/5/32/12.mvt?networkUuid=" + networkUuid))
+                .andExpect(status().isBadRequest());
+
+        given(geoDataService.getNetworkGeoData(networkUuid, Collections.emptySet())).willReturn(new NetworkGeoData(new ArrayList<>(), new ArrayList<>()));
+        given(geoDataService.getGeoDataVersion(networkUuid)).willReturn("version1");
+
+        String eTag = mvc.perform(get("/" + VERSION + "/geo?networkUuid=" + networkUuid)
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.substations", hasSize(0)))
+                .andExpect(jsonPath("$.lines", hasSize(0)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // same version: not modified, without computing the result again
+        mvc.perform(get("/" + VERSION + "/geo?networkUuid=" + networkUuid)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(geoDataService, times(1)).getNetworkGeoData(networkUuid, Collections.emptySet());
+
+        // other countries, or other stored geo data, are another version
+        mvc.perform(get("/" + VERSION + "/geo?networkUuid=" + networkUuid + "&countries=FR")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+        given(geoDataService.getGeoDataVersion(networkUuid)).willReturn("version2");
+        mvc.perform(get("/" + VERSION + "/geo?networkUuid=" + networkUuid)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+
+        // the version depends on the format of the streamed responses
+        String jsonETag = mvc.perform(get("/" + VERSION + "/substations?networkUuid=" + networkUuid))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mvc.perform(get("/" + VERSION + "/substations?networkUuid=" + networkUuid)
+                .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/" + VERSION + "/substations?networkUuid=" + networkUuid)
+                .accept(GeoDataBinaryWriter.MEDIA_TYPE)
+                .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(request().asyncStarted());
+
         String substationJson = objectMapper.writeValueAsString(Collections.singleton(
                 SubstationGeoData.builder()
                         .id("testID")
@@ -96,10 +312,14 @@ public class GeoDataControllerTest {
                         .coordinate(new Coordinate(1, 1))
                         .build()));
 
+        given(geoDataService.saveSubstations(any())).willReturn(new BulkWriteResult(1, 0, 1, 0, 10, List.of()));
+        given(geoDataService.saveLines(any())).willReturn(new BulkWriteResult(0, 2, 0, 1, 10, List.of("Batch of 2 rows in partition 'FR': timeout")));
+
         mvc.perform(post("/" + VERSION + "/substations")
                 .contentType(APPLICATION_JSON)
                 .content(substationJson))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(1));
 
         mvc.perform(post("/" + VERSION + "/lines")
                 .contentType(APPLICATION_JSON)
@@ -111,6 +331,148 @@ public class GeoDataControllerTest {
                                 .substationEnd("subBE")
                                 .coordinates(new ArrayList<>())
                                 .build()))))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.failedBatches").value(1))
+                .andExpect(jsonPath("$.failures[0]").value("Batch of 2 rows in partition 'FR': timeout"));
+
+        String csv = "id,country,lat,lon\nsubFR,FR,1,2\n";
+        given(geoDataImporter.importSubstations(any(), any()))
+                .willReturn(ImportSummary.builder().records(1).rows(1).batches(1).build());
+        mvc.perform(post("/" + VERSION + "/substations/import")
+                .contentType(GeoDataImporter.TEXT_CSV)
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records").value(1));
+
+        given(geoDataImporter.importLines(any(), any()))
+                .willReturn(ImportSummary.builder().records(2).failedBatches(1).build());
+        mvc.perform(post("/" + VERSION + "/lines/import")
+                .contentType(APPLICATION_NDJSON)
+                .content("{}\n{}\n"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.failedBatches").value(1));
+
+        mvc.perform(post("/" + VERSION + "/lines/import")
+                .contentType(APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    public void testGzip() throws Exception {
+        UUID networkUuid = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+        List<SubstationGeoData> substations = List.of(new SubstationGeoData("P1", Country.FR, new Coordinate(1, 2)));
+        given(geoDataService.getSubstations(networkUuid, Collections.emptySet())).willReturn(substations);
+        given(geoDataService.getGeoDataVersion(networkUuid)).willReturn("version1");
+
+        MvcResult result = mvc.perform(get("/" + VERSION + "/substations?networkUuid=" + networkUuid)
+                .accept(GeoDataBinaryWriter.MEDIA_TYPE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] compressed = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals("P1", GeoDataBinaryReader.readSubstations(in).get(0).getId());
+        }
+
+        // the compressed response is cached, without computing the substations again
+        result = mvc.perform(get("/" + VERSION + "/substations?networkUuid=" + networkUuid)
+                .accept(GeoDataBinaryWriter.MEDIA_TYPE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().bytes(compressed));
+        verify(geoDataService, times(1)).getSubstations(networkUuid, Collections.emptySet());
+
+        // gzip refused: not compressed
+        result = mvc.perform(get("/" + VERSION + "/substations?networkUuid=" + networkUuid)
+                .accept(GeoDataBinaryWriter.MEDIA_TYPE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] uncompressed = mvc.perform(asyncDispatch(result))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("P1", GeoDataBinaryReader.readSubstations(new ByteArrayInputStream(uncompressed)).get(0).getId());
+
+        assertTrue(GeoDataController.acceptsGzip("br, GZIP"));
+        assertFalse(GeoDataController.acceptsGzip("identity"));
+        assertFalse(GeoDataController.acceptsGzip(null));
+    }
+
+    @Test
+    public void testInvalidateNetwork() throws Exception {
+        UUID networkUuid = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+
+        mvc.perform(delete("/" + VERSION + "/snapshots?networkUuid=" + networkUuid))
                 .andExpect(status().isOk());
+        verify(geoDataService, times(1)).invalidateNetwork(networkUuid);
+    }
+
+    @Test
+    public void testFlux() throws Exception {
+        UUID networkUuid = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+        given(geoDataService.getSubstationsFlux(networkUuid, Set.of(Country.FR))).willReturn(Flux.just(
+                new SubstationGeoData("P1", Country.FR, new Coordinate(1, 2)),
+                new SubstationGeoData("P2", Country.FR, new Coordinate(3, 4))));
+        given(geoDataService.getLinesFlux(networkUuid, Set.of(Country.FR))).willReturn(Flux.just(
+                LineGeoData.builder()
+                        .id("line1")
+                        .country1(Country.FR)
+                        .country2(Country.FR)
+                        .substationStart("P1")
+                        .substationEnd("P2")
+                        .coordinates(List.of(new Coordinate(1, 2), new Coordinate(3, 4)))
+                        .build()));
+
+        MvcResult result = mvc.perform(get("/" + VERSION + "/substations?networkUuid=" + networkUuid + "&countries=FR")
+                .accept(APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] substations = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(2, substations.length);
+        assertEquals("P2", objectMapper.readValue(substations[1], SubstationGeoData.class).getId());
+
+        result = mvc.perform(get("/" + VERSION + "/lines?networkUuid=" + networkUuid + "&countries=FR")
+                .accept(APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] lines = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(1, lines.length);
+        LineGeoData line = objectMapper.readValue(lines[0], LineGeoData.class);
+        assertEquals("line1", line.getId());
+        assertEquals(List.of(new Coordinate(1, 2), new Coordinate(3, 4)), line.getCoordinates());
+
+        assertEquals(1, meterRegistry.get(GeoDataMetrics.SERIALIZATION).tags("resource", "lines", "format", "ndjson").timer().count());
+
+        // more substations than a batch, gzip compressed
+        UUID otherNetworkUuid = UUID.randomUUID();
+        given(geoDataService.getSubstationsFlux(otherNetworkUuid, Collections.emptySet())).willReturn(Flux.range(0, GeoDataController.NDJSON_BATCH_SIZE + 1)
+                .map(i -> new SubstationGeoData("P" + i, Country.FR, new Coordinate(1, 2))));
+        result = mvc.perform(get("/" + VERSION + "/substations?networkUuid=" + otherNetworkUuid)
+                .accept(APPLICATION_NDJSON)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] compressed = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_NDJSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            substations = new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+        }
+        assertEquals(GeoDataController.NDJSON_BATCH_SIZE + 1, substations.length);
+        assertEquals("P" + GeoDataController.NDJSON_BATCH_SIZE, objectMapper.readValue(substations[GeoDataController.NDJSON_BATCH_SIZE], SubstationGeoData.class).getId());
     }
 }
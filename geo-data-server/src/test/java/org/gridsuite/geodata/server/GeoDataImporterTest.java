@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.powsybl.iidm.network.Country;
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.ImportSummary;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.gridsuite.geodata.server.repositories.BulkWriteResult;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author agent <agent at local>
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = {GeoDataImporter.class, JacksonAutoConfiguration.class})
+@TestPropertySource(properties = {
+    "network-geo-data.import.substations-per-chunk=2",
+    "network-geo-data.import.line-coordinates-per-chunk=5"
+})
+public class GeoDataImporterTest {
+
+    @Autowired
+    private GeoDataImporter geoDataImporter;
+
+    @MockBean
+    private GeoDataService geoDataService;
+
+    private static InputStream toStream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BulkWriteResult written(int rows) {
+        return new BulkWriteResult(rows, 0, 1, 0, 1, List.of());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSubstationsCsv() throws IOException {
+        given(geoDataService.saveSubstations(anyList(), eq(false))).willAnswer(invocation -> written(invocation.<List<?>>getArgument(0).size()));
+
+        ImportSummary summary = geoDataImporter.importSubstations(toStream(
+                "id,country,lat,lon\n" +
+                "P1,FR,1.5,2.5\n" +
+                "\"P,2\",FR,3,4\n" +
+                "P3,XX,5,6\n" +
+                "\n" +
+                "P4,BE,7,8\n" +
+                "P5,BE,9\n"), GeoDataImporter.TEXT_CSV);
+
+        assertEquals(5, summary.getRecords());
+        assertEquals(2, summary.getInvalidRecords());
+        assertEquals(3, summary.getRows());
+        assertEquals(2, summary.getErrors().size());
+        assertEquals("Line 7: 4 fields expected, 3 found", summary.getErrors().get(1));
+
+        // chunks of 2 substations
+        ArgumentCaptor<List<SubstationGeoData>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(geoDataService, times(2)).saveSubstations(chunks.capture(), eq(false));
+        assertEquals(2, chunks.getAllValues().get(0).size());
+        assertEquals("P,2", chunks.getAllValues().get(0).get(1).getId());
+        assertEquals(new Coordinate(7, 8), chunks.getAllValues().get(1).get(0).getCoordinate());
+        // a new generation is started once for the whole import
+        verify(geoDataService, times(1)).newGeneration();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSubstationsNdjson() throws IOException {
+        given(geoDataService.saveSubstations(anyList(), eq(false))).willAnswer(invocation -> written(invocation.<List<?>>getArgument(0).size()));
+
+        ImportSummary summary = geoDataImporter.importSubstations(toStream(
+                "{\"id\":\"P1\",\"country\":\"FR\",\"coordinate\":{\"lat\":1,\"lon\":2}}\n" +
+                "{\"id\":\"P2\",\"country\":\"FR\"}\n" +
+                "{\"id\":\"P3\",\n"), MediaType.APPLICATION_NDJSON);
+
+        assertEquals(3, summary.getRecords());
+        assertEquals(2, summary.getInvalidRecords());
+        assertEquals(1, summary.getRows());
+
+        ArgumentCaptor<List<SubstationGeoData>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(geoDataService).saveSubstations(chunks.capture(), eq(false));
+        assertEquals(Country.FR, chunks.getValue().get(0).getCountry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLinesCsv() throws IOException {
+        given(geoDataService.saveLines(anyList(), eq(false))).willAnswer(invocation -> written(invocation.<List<?>>getArgument(0).size()));
+
+        ImportSummary summary = geoDataImporter.importLines(toStream(
+                "id,country1,country2,substationStart,substationEnd,lat,lon\n" +
+                "L1,FR,BE,P1,P2,1,2\n" +
+                "L1,FR,BE,P1,P2,3,4\n" +
+                "L1,FR,BE,P1,P2,5,6\n" +
+                "L2,FR,FR,,,,\n" +
+                "L3,FR,FR,P3,P4,1,x\n" +
+                "L3,FR,FR,P3,P4,1,2\n" +
+                "L4,FR,FR,P4,P5,7,8\n"), GeoDataImporter.TEXT_CSV);
+
+        assertEquals(4, summary.getRecords());
+        assertEquals(1, summary.getInvalidRecords());
+        assertEquals(3, summary.getRows());
+
+        // L1 and L2 fill a chunk of 5 coordinates, a line weighing its number of coordinates plus one
+        ArgumentCaptor<List<LineGeoData>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(geoDataService, times(2)).saveLines(chunks.capture(), eq(false));
+        LineGeoData l1 = chunks.getAllValues().get(0).get(0);
+        assertEquals(List.of(new Coordinate(1, 2), new Coordinate(3, 4), new Coordinate(5, 6)), l1.getCoordinates());
+        assertEquals(Country.BE, l1.getCountry2());
+        LineGeoData l2 = chunks.getAllValues().get(0).get(1);
+        assertEquals("L2", l2.getId());
+        assertNull(l2.getSubstationStart());
+        assertEquals(0, l2.getCoordinates().size());
+        assertEquals("L4", chunks.getAllValues().get(1).get(0).getId());
+        verify(geoDataService, times(1)).newGeneration();
+    }
+
+    @Test
+    public void testLinesNdjson() throws IOException {
+        given(geoDataService.saveLines(anyList(), eq(false))).willReturn(new BulkWriteResult(0, 3, 0, 1, 1, List.of("Batch of 3 rows in partition 'FR': timeout")));
+
+        ImportSummary summary = geoDataImporter.importLines(toStream(
+                "{\"id\":\"L1\",\"country1\":\"FR\",\"country2\":\"BE\",\"coordinates\":[{\"lat\":1,\"lon\":2}]}\n" +
+                "{\"id\":\"L2\",\"country1\":\"FR\",\"country2\":\"FR\"}\n"), MediaType.APPLICATION_NDJSON);
+
+        assertEquals(2, summary.getRecords());
+        assertEquals(0, summary.getInvalidRecords());
+        assertEquals(1, summary.getFailedBatches());
+        assertEquals(3, summary.getFailedRows());
+        assertEquals(List.of("Batch of 3 rows in partition 'FR': timeout"), summary.getErrors());
+    }
+
+    @Test
+    public void testSplitCsv() {
+        assertEquals(List.of("a", "b c", "", "d,\"e\""), GeoDataImporter.splitCsv("a, b c ,,\"d,\"\"e\"\"\""));
+    }
+}
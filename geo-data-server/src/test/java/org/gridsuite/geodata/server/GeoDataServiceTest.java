@@ -10,14 +10,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import org.gridsuite.geodata.extensions.Coordinate;
 import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.NetworkGeoData;
 import org.gridsuite.geodata.server.dto.SubstationGeoData;
 import org.gridsuite.geodata.server.repositories.*;
 import com.powsybl.iidm.network.*;
+import com.powsybl.iidm.network.impl.NetworkFactoryImpl;
 import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import com.powsybl.network.store.client.NetworkStoreService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.ContextHierarchy;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -26,6 +32,9 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Chamseddine Benhamed <chamseddine.benhamed at rte-france.com>
@@ -48,8 +57,19 @@ public class GeoDataServiceTest extends AbstractEmbeddedCassandraSetup  {
     @Autowired
     GeoDataService geoDataService;
 
+    @Autowired
+    GeoDataCache geoDataCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private NetworkStoreService networkStoreService;
+
     @Before
     public void setUp() {
+        geoDataCache.invalidateAll();
+
         List<SubstationEntity> substationEntities = new ArrayList<>();
 
         substationEntities.add(SubstationEntity.builder()
@@ -150,6 +170,15 @@ public class GeoDataServiceTest extends AbstractEmbeddedCassandraSetup  {
         assertEquals(1, substationsGeoData2.stream().filter(s -> s.getId().equals("P5")).collect(Collectors.toList()).get(0).getCoordinate().getLon(), 0);
     }
 
+    @Test
+    public void testLinesAssemblyTimer() {
+        Timer timer = meterRegistry.get(GeoDataMetrics.LINES_ASSEMBLY).timer();
+        long count = timer.count();
+        assertEquals(11, geoDataService.getLines(createGeoDataNetwork(), Set.of(Country.FR)).size());
+        // timed once for all the lines
+        assertEquals(count + 1, timer.count());
+    }
+
     @Test
     public void testNonExisting() {
         Network network = EurostagTutorialExample1Factory.create();
@@ -209,6 +238,252 @@ public class GeoDataServiceTest extends AbstractEmbeddedCassandraSetup  {
                 linesGeoData.stream().anyMatch(s -> notexistline.getId().equals(s.getId())));
     }
 
+    @Test
+    public void testCache() {
+        Network network = createGeoDataNetwork();
+
+        long misses = geoDataCache.getSubstationsStats().missCount();
+        long hits = geoDataCache.getSubstationsStats().hitCount();
+        geoDataService.getSubstations(network, new HashSet<>(Collections.singletonList(Country.FR)));
+        assertEquals(misses + 1, geoDataCache.getSubstationsStats().missCount());
+        geoDataService.getSubstations(network, new HashSet<>(Collections.singletonList(Country.FR)));
+        assertEquals(hits + 1, geoDataCache.getSubstationsStats().hitCount());
+
+        // saving a substation of FR invalidates the FR entry
+        geoDataService.saveSubstations(List.of(SubstationGeoData.builder()
+                .id("P4")
+                .country(Country.FR)
+                .coordinate(new Coordinate(10, 20))
+                .build()));
+        List<SubstationGeoData> substationsGeoData = geoDataService.getSubstations(network, new HashSet<>(Collections.singletonList(Country.FR)));
+        assertEquals(misses + 2, geoDataCache.getSubstationsStats().missCount());
+        assertEquals(10, getSubstationFromList(substationsGeoData, "P4").getCoordinate().getLat(), 0);
+        assertEquals(20, getSubstationFromList(substationsGeoData, "P4").getCoordinate().getLon(), 0);
+
+        geoDataService.getLines(network, new HashSet<>(Collections.singletonList(Country.FR)));
+        long linesMisses = geoDataCache.getLinesStats().missCount();
+        geoDataService.saveLines(List.of(LineGeoData.builder()
+                .id("NHV1_NHV5")
+                .country1(Country.FR)
+                .country2(Country.BE)
+                .substationStart("P1")
+                .substationEnd("P5")
+                .coordinates(List.of(new Coordinate(1.5, 1.5)))
+                .build()));
+        List<LineGeoData> linesGeoData = geoDataService.getLines(network, new HashSet<>(Collections.singletonList(Country.FR)));
+        assertEquals(linesMisses + 2, geoDataCache.getLinesStats().missCount());
+        assertEquals(3, getFromList(linesGeoData, "NHV1_NHV5").getCoordinates().size());
+    }
+
+    /**
+     * Chain of substations S0 - S1 - ... connected by lines.
+     */
+    private static Network createChainNetwork(int length) {
+        Network network = new NetworkFactoryImpl().createNetwork("chain", "test");
+        for (int i = 0; i < length; i++) {
+            VoltageLevel vl = network.newSubstation()
+                    .setId("S" + i)
+                    .setCountry(Country.FR)
+                    .add()
+                    .newVoltageLevel()
+                    .setId("VL" + i)
+                    .setNominalV(380)
+                    .setTopologyKind(TopologyKind.BUS_BREAKER)
+                    .add();
+            vl.getBusBreakerView().newBus()
+                    .setId("B" + i)
+                    .add();
+            if (i > 0) {
+                network.newLine()
+                        .setId("L" + i)
+                        .setVoltageLevel1("VL" + (i - 1))
+                        .setBus1("B" + (i - 1))
+                        .setVoltageLevel2("VL" + i)
+                        .setBus2("B" + i)
+                        .setR(3.0)
+                        .setX(33.0)
+                        .setG1(0.0)
+                        .setB1(386E-6 / 2)
+                        .setG2(0.0)
+                        .setB2(386E-6 / 2)
+                        .add();
+            }
+        }
+        return network;
+    }
+
+    @Test
+    public void testLongChain() {
+        // the known position propagates along the whole chain, one substation per iteration
+        Network network = createChainNetwork(20);
+        List<Substation> substations = network.getSubstationStream().collect(Collectors.toList());
+        Map<String, SubstationGeoData> substationsGeoData = new HashMap<>();
+        substationsGeoData.put("S0", new SubstationGeoData("S0", Country.FR, new Coordinate(45, 5)));
+        Set<String> substationsToCalculate = substations.stream().map(Substation::getId).filter(id -> !id.equals("S0")).collect(Collectors.toSet());
+
+        geoDataService.calculateMissingGeoData(substations, substationsGeoData, substationsToCalculate);
+
+        assertTrue(substationsToCalculate.isEmpty());
+        assertEquals(20, substationsGeoData.size());
+        assertEquals(45 - 19 * 0.002, substationsGeoData.get("S19").getCoordinate().getLat(), 1e-9);
+        assertEquals(5 - 19 * 0.007, substationsGeoData.get("S19").getCoordinate().getLon(), 1e-9);
+    }
+
+    @Test
+    public void testPrefetchWithoutCountries() {
+        UUID networkUuid = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+        given(networkStoreService.getNetwork(networkUuid)).willReturn(createGeoDataNetwork());
+
+        // the partitions of all the countries are read while the network is loaded, then the ones of the network
+        // are taken from the cache
+        long misses = geoDataCache.getSubstationsStats().missCount();
+        long hits = geoDataCache.getSubstationsStats().hitCount();
+        assertFalse(geoDataService.getSubstations(networkUuid, Collections.emptySet()).isEmpty());
+        assertEquals(misses + Country.values().length, geoDataCache.getSubstationsStats().missCount());
+        assertTrue(geoDataCache.getSubstationsStats().hitCount() > hits);
+
+        misses = geoDataCache.getLinesStats().missCount();
+        assertFalse(geoDataService.getLines(networkUuid, Collections.emptySet()).isEmpty());
+        assertEquals(misses + Country.values().length, geoDataCache.getLinesStats().missCount());
+    }
+
+    @Test
+    public void testSubstationsResultsCache() {
+        UUID networkUuid = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+        given(networkStoreService.getNetwork(networkUuid)).willReturn(createGeoDataNetwork());
+
+        List<SubstationGeoData> substationsGeoData = geoDataService.getSubstations(networkUuid, Set.of(Country.FR));
+        assertEquals(4, substationsGeoData.size());
+        assertSame(substationsGeoData, geoDataService.getSubstations(networkUuid, Set.of(Country.FR)));
+        verify(networkStoreService, times(1)).getNetwork(networkUuid);
+
+        // a different set of countries is another result
+        assertEquals(5, geoDataService.getSubstations(networkUuid, Set.of(Country.FR, Country.BE)).size());
+        verify(networkStoreService, times(2)).getNetwork(networkUuid);
+
+        // lines reuse the substations already computed for their countries
+        assertEquals(11, geoDataService.getLines(networkUuid, Set.of(Country.FR)).size());
+        verify(networkStoreService, times(3)).getNetwork(networkUuid);
+
+        // saving geo data invalidates the results
+        geoDataService.saveSubstations(List.of(SubstationGeoData.builder()
+                .id("P4")
+                .country(Country.FR)
+                .coordinate(new Coordinate(10, 20))
+                .build()));
+        substationsGeoData = geoDataService.getSubstations(networkUuid, Set.of(Country.FR));
+        verify(networkStoreService, times(4)).getNetwork(networkUuid);
+        assertEquals(10, getSubstationFromList(substationsGeoData, "P4").getCoordinate().getLat(), 0);
+    }
+
+    @Test
+    public void testBoundingBox() {
+        UUID networkUuid = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+        given(networkStoreService.getNetwork(networkUuid)).willReturn(createGeoDataNetwork());
+
+        // P1 is stored at (1, 1) and P4 is estimated at (2, 3)
+        List<SubstationGeoData> substationsGeoData = geoDataService.getSubstations(networkUuid, Set.of(Country.FR), new BoundingBox(0, 0, 2.5, 3.5));
+        assertEquals(Set.of("P1", "P4"), substationsGeoData.stream().map(SubstationGeoData::getId).collect(Collectors.toSet()));
+        assertEquals(0, geoDataService.getSubstations(networkUuid, Set.of(Country.FR), new BoundingBox(20, 20, 30, 30)).size());
+        verify(networkStoreService, times(1)).getNetwork(networkUuid);
+
+        // the lines intersecting the bounding box, all of them for a bounding box covering the network
+        List<LineGeoData> linesGeoData = geoDataService.streamLines(networkUuid, Set.of(Country.FR), new BoundingBox(-90, -180, 90, 180)).collect(Collectors.toList());
+        assertEquals(11, linesGeoData.size());
+        assertEquals(0, geoDataService.streamLines(networkUuid, Set.of(Country.FR), new BoundingBox(20, 20, 30, 30)).count());
+        verify(networkStoreService, times(2)).getNetwork(networkUuid);
+
+        // at a national zoom level, the coordinates of NHV2_NHV3 equal to its substations positions are removed
+        List<LineGeoData> simplifiedLinesGeoData = geoDataService.streamLines(networkUuid, Set.of(Country.FR), 0, null).collect(Collectors.toList());
+        assertEquals(11, simplifiedLinesGeoData.size());
+        assertEquals(5, getFromList(linesGeoData, "NHV2_NHV3").getCoordinates().size());
+        assertEquals(3, getFromList(simplifiedLinesGeoData, "NHV2_NHV3").getCoordinates().size());
+        assertEquals(5, getFromList(geoDataService.streamLines(networkUuid, Set.of(Country.FR), LineSimplifier.MAX_ZOOM, null).collect(Collectors.toList()),
+                "NHV2_NHV3").getCoordinates().size());
+        verify(networkStoreService, times(2)).getNetwork(networkUuid);
+
+        // the index is rebuilt from the saved geo data
+        geoDataService.saveSubstations(List.of(SubstationGeoData.builder()
+                .id("P4")
+                .country(Country.FR)
+                .coordinate(new Coordinate(25, 25))
+                .build()));
+        substationsGeoData = geoDataService.getSubstations(networkUuid, Set.of(Country.FR), new BoundingBox(20, 20, 30, 30));
+        assertEquals(List.of("P4"), substationsGeoData.stream().map(SubstationGeoData::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testTile() {
+        UUID networkUuid = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+        given(networkStoreService.getNetwork(networkUuid)).willReturn(createGeoDataNetwork());
+
+        // the substations are around the gulf of Guinea, in the tile 0/0/0 and 3/4/3 but not in 3/0/0
+        byte[] tile = geoDataService.getTile(networkUuid, 0, 0, 0);
+        assertTrue(tile.length > 0);
+        assertSame(tile, geoDataService.getTile(networkUuid, 0, 0, 0));
+        assertTrue(geoDataService.getTile(networkUuid, 3, 4, 3).length > 0);
+        assertEquals(0, geoDataService.getTile(networkUuid, 3, 0, 0).length);
+        // once for the lines, once for the substations of all the countries
+        verify(networkStoreService, times(2)).getNetwork(networkUuid);
+    }
+
+    @Test
+    public void testNetworkGeoData() {
+        UUID networkUuid = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+        given(networkStoreService.getNetwork(networkUuid)).willReturn(createGeoDataNetwork());
+
+        NetworkGeoData networkGeoData = geoDataService.getNetworkGeoData(networkUuid, Set.of(Country.FR));
+        verify(networkStoreService, times(1)).getNetwork(networkUuid);
+
+        // only the substations of the requested countries, but the lines up to the neighbouring substations
+        assertEquals(4, networkGeoData.getSubstations().size());
+        assertTrue(networkGeoData.getSubstations().stream().allMatch(s -> s.getCountry() == Country.FR));
+        assertEquals(2, getSubstationFromList(networkGeoData.getSubstations(), "P4").getCoordinate().getLat(), 0);
+        assertEquals(3, getSubstationFromList(networkGeoData.getSubstations(), "P4").getCoordinate().getLon(), 0);
+        assertEquals(11, networkGeoData.getLines().size());
+        assertEquals(5, getFromList(networkGeoData.getLines(), "NHV2_NHV3").getCoordinates().size());
+
+        // same substations and lines as the substations and lines endpoints, already computed
+        assertEquals(toStrings(networkGeoData.getSubstations()), toStrings(geoDataService.getSubstations(networkUuid, Set.of(Country.FR))));
+        assertEquals(11, geoDataService.getLines(networkUuid, Set.of(Country.FR)).size());
+        verify(networkStoreService, times(2)).getNetwork(networkUuid);
+
+        networkGeoData = geoDataService.getNetworkGeoData(networkUuid, Collections.emptySet());
+        assertEquals(5, networkGeoData.getSubstations().size());
+        assertEquals(11, networkGeoData.getLines().size());
+    }
+
+    private static List<String> toStrings(List<SubstationGeoData> substations) {
+        return substations.stream().map(SubstationGeoData::toString).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testNetworkGeoDataScope() {
+        UUID networkUuid = UUID.randomUUID();
+        Network network = createChainNetwork(2);
+        network.getSubstation("S1").setCountry(Country.BE);
+        given(networkStoreService.getNetwork(networkUuid)).willReturn(network);
+        geoDataService.saveSubstations(List.of(new SubstationGeoData("S1", Country.BE, new Coordinate(50, 4))));
+
+        // S0 could only be estimated from its neighbour in BE: the substations of FR are estimated from FR only
+        // by both endpoints
+        List<SubstationGeoData> substations = geoDataService.getSubstations(networkUuid, Set.of(Country.FR));
+        assertTrue(substations.isEmpty());
+        NetworkGeoData networkGeoData = geoDataService.getNetworkGeoData(networkUuid, Set.of(Country.FR));
+        assertEquals(toStrings(substations), toStrings(networkGeoData.getSubstations()));
+
+        // the ends of the lines are estimated with the other side of the lines, by both endpoints
+        List<LineGeoData> lines = geoDataService.getLines(networkUuid, Set.of(Country.FR));
+        assertEquals(1, lines.size());
+        assertEquals(lines.get(0).getCoordinates(), networkGeoData.getLines().get(0).getCoordinates());
+    }
+
+    static SubstationGeoData getSubstationFromList(List<SubstationGeoData> list, String id) {
+        Optional<SubstationGeoData> res = list.stream().filter(s -> s.getId().equals(id)).findAny();
+        assertTrue(res.isPresent());
+        return res.get();
+    }
+
     private Network createGeoDataNetwork() {
         Network network = EurostagTutorialExample1Factory.create();
 
@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.powsybl.iidm.network.Country;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import com.powsybl.network.store.client.NetworkStoreService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.gridsuite.geodata.server.repositories.GeoDataGenerationRepository;
+import org.gridsuite.geodata.server.repositories.LineCustomRepository;
+import org.gridsuite.geodata.server.repositories.NetworkSnapshotRepository;
+import org.gridsuite.geodata.server.repositories.SubstationCustomRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.ContextHierarchy;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * @author agent <agent at local>
+ */
+@RunWith(SpringRunner.class)
+@ContextHierarchy({
+    @ContextConfiguration(classes = GeoDataApplication.class)
+    })
+@TestPropertySource(properties = {"network-geo-data.snapshots.enabled=true", "network-geo-data.snapshots.time-to-live=1h",
+    "network-geo-data.cache.generation-refresh=0s"})
+public class GeoDataSnapshotsTest extends AbstractEmbeddedCassandraSetup {
+
+    private static final Set<Country> COUNTRIES = EnumSet.of(Country.FR, Country.BE);
+
+    @Autowired
+    private GeoDataSnapshots snapshots;
+
+    @Autowired
+    private GeoDataService geoDataService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CqlSession session;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @MockBean
+    private NetworkStoreService networkStoreService;
+
+    private final AtomicInteger computed = new AtomicInteger();
+
+    private static List<SubstationGeoData> createSubstations() {
+        return Arrays.asList(new SubstationGeoData("P1", Country.FR, new Coordinate(48.8566, 2.3522)),
+                             new SubstationGeoData("P2", Country.BE, new Coordinate(50.8503, -4.3517)));
+    }
+
+    private static List<LineGeoData> createLines() {
+        return Arrays.asList(new LineGeoData("L1", Country.FR, Country.BE, "P1", "P2",
+                                 Arrays.asList(new Coordinate(48.8566, 2.3522), new Coordinate(49.5, 3.25), new Coordinate(50.8503, -4.3517))),
+                             new LineGeoData("L2", Country.FR, Country.FR, "P1", "P3", Collections.emptyList()));
+    }
+
+    private <T> Supplier<List<T>> compute(Supplier<List<T>> supplier) {
+        return () -> {
+            computed.incrementAndGet();
+            return supplier.get();
+        };
+    }
+
+    private double getReads(String resource, String result) {
+        return meterRegistry.counter(GeoDataMetrics.SNAPSHOTS, "resource", resource, "result", result).count();
+    }
+
+    private static void assertCoordinateEquals(Coordinate expected, Coordinate actual) {
+        // snapshots round coordinates to 1e-7 degree
+        assertEquals(expected.getLat(), actual.getLat(), 1e-7);
+        assertEquals(expected.getLon(), actual.getLon(), 1e-7);
+    }
+
+    @Test
+    public void testSubstations() {
+        UUID networkUuid = UUID.randomUUID();
+        double misses = getReads(NetworkSnapshotRepository.SUBSTATIONS, "miss");
+        double hits = getReads(NetworkSnapshotRepository.SUBSTATIONS, "hit");
+
+        List<SubstationGeoData> substations = snapshots.getSubstations(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createSubstations));
+        assertEquals(1, computed.get());
+        assertEquals(2, substations.size());
+        assertEquals(misses + 1, getReads(NetworkSnapshotRepository.SUBSTATIONS, "miss"), 0);
+
+        // the countries are read in any order
+        substations = snapshots.getSubstations(networkUuid, EnumSet.of(Country.BE, Country.FR), compute(GeoDataSnapshotsTest::createSubstations));
+        assertEquals(1, computed.get());
+        assertEquals(hits + 1, getReads(NetworkSnapshotRepository.SUBSTATIONS, "hit"), 0);
+
+        List<SubstationGeoData> expected = createSubstations();
+        assertEquals(expected.size(), substations.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), substations.get(i).getId());
+            assertEquals(expected.get(i).getCountry(), substations.get(i).getCountry());
+            assertCoordinateEquals(expected.get(i).getCoordinate(), substations.get(i).getCoordinate());
+        }
+
+        // snapshots of other countries are distinct
+        snapshots.getSubstations(networkUuid, EnumSet.of(Country.FR), compute(GeoDataSnapshotsTest::createSubstations));
+        assertEquals(2, computed.get());
+    }
+
+    @Test
+    public void testLines() {
+        UUID networkUuid = UUID.randomUUID();
+
+        snapshots.getLines(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createLines));
+        List<LineGeoData> lines = snapshots.getLines(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createLines));
+        assertEquals(1, computed.get());
+
+        List<LineGeoData> expected = createLines();
+        assertEquals(expected.size(), lines.size());
+        for (int i = 0; i < expected.size(); i++) {
+            LineGeoData expectedLine = expected.get(i);
+            LineGeoData line = lines.get(i);
+            assertEquals(expectedLine.getId(), line.getId());
+            assertEquals(expectedLine.getCountry1(), line.getCountry1());
+            assertEquals(expectedLine.getCountry2(), line.getCountry2());
+            assertEquals(expectedLine.getSubstationStart(), line.getSubstationStart());
+            assertEquals(expectedLine.getSubstationEnd(), line.getSubstationEnd());
+            assertEquals(expectedLine.getCoordinates().size(), line.getCoordinates().size());
+            for (int j = 0; j < expectedLine.getCoordinates().size(); j++) {
+                assertCoordinateEquals(expectedLine.getCoordinates().get(j), line.getCoordinates().get(j));
+            }
+        }
+    }
+
+    @Test
+    public void testTimeToLive() {
+        UUID networkUuid = UUID.randomUUID();
+        snapshots.getLines(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createLines));
+
+        int timeToLive = session.execute(SimpleStatement.newInstance("select ttl(generation) from network_snapshots where networkUuid = ? and countries = ? and resource = ? and chunk = -1",
+                networkUuid, "BE,FR", NetworkSnapshotRepository.LINES)).one().getInt(0);
+        assertTrue(timeToLive > 3500 && timeToLive <= 3600);
+    }
+
+    @Test
+    public void testInvalidate() {
+        UUID networkUuid = UUID.randomUUID();
+        UUID otherNetworkUuid = UUID.randomUUID();
+        snapshots.getSubstations(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createSubstations));
+        snapshots.getSubstations(otherNetworkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createSubstations));
+        assertEquals(2, computed.get());
+
+        snapshots.invalidate(networkUuid);
+        snapshots.getSubstations(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createSubstations));
+        assertEquals(3, computed.get());
+        snapshots.getSubstations(otherNetworkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createSubstations));
+        assertEquals(3, computed.get());
+    }
+
+    @Test
+    public void testInvalidateOnSave() {
+        UUID networkUuid = UUID.randomUUID();
+        snapshots.getSubstations(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createSubstations));
+        snapshots.getLines(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createLines));
+        assertEquals(2, computed.get());
+
+        geoDataService.saveSubstations(createSubstations());
+        snapshots.getSubstations(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createSubstations));
+        snapshots.getLines(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createLines));
+        assertEquals(4, computed.get());
+
+        // chunks saved without a new generation, then a new generation started once
+        geoDataService.saveLines(createLines(), false);
+        snapshots.getLines(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createLines));
+        assertEquals(4, computed.get());
+        geoDataService.newGeneration();
+        snapshots.getLines(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createLines));
+        assertEquals(5, computed.get());
+    }
+
+    /**
+     * Starts the services of another instance of the server, sharing the keyspace of the test.
+     */
+    private ConfigurableApplicationContext startOtherInstance(String generationRefresh) {
+        return new SpringApplicationBuilder(GeoDataService.class, GeoDataCache.class, GeoDataSnapshots.class, GeoDataMetrics.class,
+                SubstationCustomRepository.class, LineCustomRepository.class, NetworkSnapshotRepository.class, GeoDataGenerationRepository.class)
+                .parent((ConfigurableApplicationContext) applicationContext.getParent())
+                .web(WebApplicationType.NONE)
+                .initializers(context -> {
+                    context.getBeanFactory().registerSingleton("networkStoreService", networkStoreService);
+                    context.getBeanFactory().registerSingleton("meterRegistry", new SimpleMeterRegistry());
+                })
+                .properties("network-geo-data.snapshots.enabled=true",
+                            "network-geo-data.cache.generation-refresh=" + generationRefresh)
+                .run();
+    }
+
+    private static double getLatitude(List<SubstationGeoData> substations, String id) {
+        return substations.stream().filter(s -> s.getId().equals(id)).findFirst().orElseThrow().getCoordinate().getLat();
+    }
+
+    private void saveP1(double lat) {
+        geoDataService.saveSubstations(List.of(new SubstationGeoData("P1", Country.FR, new Coordinate(lat, 2))));
+    }
+
+    @Test
+    public void testSavedThroughAnotherInstance() {
+        UUID networkUuid = UUID.randomUUID();
+        UUID otherNetworkUuid = UUID.randomUUID();
+        given(networkStoreService.getNetwork(networkUuid)).willReturn(EurostagTutorialExample1Factory.create());
+        given(networkStoreService.getNetwork(otherNetworkUuid)).willReturn(EurostagTutorialExample1Factory.create());
+        Set<Country> countries = EnumSet.of(Country.FR);
+        saveP1(1);
+
+        try (ConfigurableApplicationContext staleInstance = startOtherInstance("1h");
+             ConfigurableApplicationContext instance = startOtherInstance("0s")) {
+            GeoDataService staleService = staleInstance.getBean(GeoDataService.class);
+            GeoDataService service = instance.getBean(GeoDataService.class);
+            // both instances cache the geo data
+            assertEquals(1, getLatitude(staleService.getSubstations(networkUuid, countries), "P1"), 1e-7);
+            assertEquals(1, getLatitude(service.getSubstations(networkUuid, countries), "P1"), 1e-7);
+
+            saveP1(3);
+
+            // an instance seeing the new generation computes again from the saved geo data
+            assertEquals(3, getLatitude(service.getSubstations(networkUuid, countries), "P1"), 1e-7);
+
+            // an instance that has not seen it yet computes from its cache, its snapshot having the previous generation
+            assertEquals(1, getLatitude(staleService.getSubstations(otherNetworkUuid, countries), "P1"), 1e-7);
+            assertEquals(3, getLatitude(geoDataService.getSubstations(otherNetworkUuid, countries), "P1"), 1e-7);
+            assertEquals(3, getLatitude(service.getSubstations(otherNetworkUuid, countries), "P1"), 1e-7);
+        }
+    }
+
+    @Test
+    public void testNetworkModifiedThroughAnotherInstance() {
+        UUID networkUuid = UUID.randomUUID();
+        given(networkStoreService.getNetwork(networkUuid)).willReturn(EurostagTutorialExample1Factory.create());
+        Set<Country> countries = EnumSet.of(Country.FR);
+        saveP1(1);
+
+        try (ConfigurableApplicationContext instance = startOtherInstance("0s")) {
+            GeoDataService service = instance.getBean(GeoDataService.class);
+            // the version sent to clients is the same for all the instances
+            String version = service.getGeoDataVersion(networkUuid);
+            assertEquals(geoDataService.getGeoDataVersion(networkUuid), version);
+            assertEquals(1, service.getSubstations(networkUuid, countries).size());
+
+            Network network = EurostagTutorialExample1Factory.create();
+            network.getSubstation("P1").setCountry(Country.BE);
+            given(networkStoreService.getNetwork(networkUuid)).willReturn(network);
+            geoDataService.invalidateNetwork(networkUuid);
+
+            assertNotEquals(version, service.getGeoDataVersion(networkUuid));
+            assertEquals(geoDataService.getGeoDataVersion(networkUuid), service.getGeoDataVersion(networkUuid));
+            assertTrue(service.getSubstations(networkUuid, countries).isEmpty());
+        }
+    }
+
+    @Test
+    public void testMaxBytes() {
+        UUID networkUuid = UUID.randomUUID();
+        Object maxBytes = ReflectionTestUtils.getField(snapshots, "maxBytes");
+        ReflectionTestUtils.setField(snapshots, "maxBytes", 10L);
+        try {
+            assertEquals(2, snapshots.getLines(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createLines)).size());
+            assertEquals(2, snapshots.getLines(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createLines)).size());
+            assertEquals(2, computed.get());
+        } finally {
+            ReflectionTestUtils.setField(snapshots, "maxBytes", maxBytes);
+        }
+    }
+
+    @Test
+    public void testChunks() {
+        UUID networkUuid = UUID.randomUUID();
+        Object chunkBytes = ReflectionTestUtils.getField(snapshots, "chunkBytes");
+        ReflectionTestUtils.setField(snapshots, "chunkBytes", 7);
+        try {
+            snapshots.getLines(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createLines));
+            List<LineGeoData> lines = snapshots.getLines(networkUuid, COUNTRIES, compute(GeoDataSnapshotsTest::createLines));
+            assertEquals(1, computed.get());
+            assertEquals(List.of("L1", "L2"), lines.stream().map(LineGeoData::getId).collect(Collectors.toList()));
+            assertCoordinateEquals(new Coordinate(49.5, 3.25), lines.get(0).getCoordinates().get(1));
+
+            long chunks = session.execute(SimpleStatement.newInstance("select chunk from network_snapshots where networkUuid = ?", networkUuid))
+                    .all().size();
+            assertTrue(chunks > 2);
+        } finally {
+            ReflectionTestUtils.setField(snapshots, "chunkBytes", chunkBytes);
+        }
+    }
+}
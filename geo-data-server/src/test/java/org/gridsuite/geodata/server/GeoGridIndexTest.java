@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.powsybl.iidm.network.Country;
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent <agent at local>
+ */
+public class GeoGridIndexTest {
+
+    private static List<String> ids(List<SubstationGeoData> substations) {
+        return substations.stream().map(SubstationGeoData::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testPoints() {
+        List<SubstationGeoData> substations = List.of(
+                new SubstationGeoData("P1", Country.FR, new Coordinate(1, 1)),
+                new SubstationGeoData("P2", Country.FR, new Coordinate(3, 1)),
+                new SubstationGeoData("P3", Country.FR, new Coordinate(2, 7)),
+                new SubstationGeoData("P4", Country.FR, null),
+                new SubstationGeoData("P5", Country.BE, new Coordinate(2, 3)));
+        GeoGridIndex<SubstationGeoData> index = GeoGridIndex.buildPoints(substations, SubstationGeoData::getCoordinate);
+
+        assertEquals(5, index.size());
+        assertEquals(4, index.getCoordinateCount());
+        assertEquals(List.of("P1", "P2", "P3", "P5"), ids(index.query(new BoundingBox(-90, -180, 90, 180))));
+        assertEquals(List.of("P1", "P2", "P5"), ids(index.query(new BoundingBox(1, 1, 3, 3))));
+        assertEquals(List.of("P3"), ids(index.query(new BoundingBox(2, 7, 2, 7))));
+        assertEquals(Collections.emptyList(), ids(index.query(new BoundingBox(1.5, 1.5, 1.9, 2.9))));
+        assertEquals(Collections.emptyList(), ids(index.query(new BoundingBox(10, 10, 20, 20))));
+
+        assertEquals(0, GeoGridIndex.buildPoints(Collections.<SubstationGeoData>emptyList(), SubstationGeoData::getCoordinate)
+                .query(new BoundingBox(-90, -180, 90, 180)).size());
+    }
+
+    @Test
+    public void testLines() {
+        List<LineGeoData> lines = List.of(
+                new LineGeoData("L1", Country.FR, Country.FR, "P1", "P2", List.of(new Coordinate(0, 0), new Coordinate(0, 10))),
+                new LineGeoData("L2", Country.FR, Country.FR, "P2", "P3", List.of(new Coordinate(0, 10), new Coordinate(5, 10), new Coordinate(10, 10))),
+                new LineGeoData("L3", Country.FR, Country.FR, "P3", "P4", List.of(new Coordinate(10, 0), new Coordinate(10, 1))));
+        GeoGridIndex<LineGeoData> index = GeoGridIndex.build(lines, LineGeoData::getCoordinates);
+        assertEquals(7, index.getCoordinateCount());
+
+        // a bounding box in the middle of a long segment, far from its ends
+        assertEquals(List.of("L1"), index.query(new BoundingBox(-1, 4, 1, 6)).stream().map(LineGeoData::getId).collect(Collectors.toList()));
+        assertEquals(List.of("L1", "L2"), index.query(new BoundingBox(-1, 9, 1, 11)).stream().map(LineGeoData::getId).collect(Collectors.toList()));
+        assertEquals(List.of("L2"), index.query(new BoundingBox(6, 9, 7, 11)).stream().map(LineGeoData::getId).collect(Collectors.toList()));
+        assertEquals(List.of("L1", "L2", "L3"), index.query(new BoundingBox(-1, -1, 11, 11)).stream().map(LineGeoData::getId).collect(Collectors.toList()));
+        assertEquals(0, index.query(new BoundingBox(4, 4, 6, 6)).size());
+    }
+
+    @Test
+    public void testRandomPoints() {
+        Random random = new Random(42);
+        List<SubstationGeoData> substations = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            substations.add(new SubstationGeoData("P" + i, Country.FR, new Coordinate(42 + random.nextDouble() * 9, -5 + random.nextDouble() * 13)));
+        }
+        GeoGridIndex<SubstationGeoData> index = GeoGridIndex.buildPoints(substations, SubstationGeoData::getCoordinate);
+
+        for (int q = 0; q < 100; q++) {
+            double lat = 41 + random.nextDouble() * 11;
+            double lon = -6 + random.nextDouble() * 15;
+            BoundingBox bbox = new BoundingBox(lat, lon, lat + random.nextDouble(), lon + random.nextDouble());
+            List<SubstationGeoData> expected = substations.stream()
+                    .filter(s -> bbox.contains(s.getCoordinate().getLat(), s.getCoordinate().getLon()))
+                    .collect(Collectors.toList());
+            assertEquals(ids(expected), ids(index.query(bbox)));
+        }
+    }
+
+    @Test
+    public void testBoundingBox() {
+        assertEquals(new BoundingBox(1, 2, 3, 4), BoundingBox.of(List.of(1d, 2d, 3d, 4d)));
+        assertTrue(new BoundingBox(1, 2, 3, 4).contains(3, 4));
+        List<Double> threeBounds = List.of(1d, 2d, 3d);
+        assertThrows(IllegalArgumentException.class, () -> BoundingBox.of(threeBounds));
+        assertThrows(IllegalArgumentException.class, () -> new BoundingBox(3, 2, 1, 4));
+        assertThrows(IllegalArgumentException.class, () -> new BoundingBox(Double.NaN, 2, 3, 4));
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.powsybl.iidm.network.Country;
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class LineSimplifierTest {
+
+    @Test
+    public void testSimplify() {
+        List<Coordinate> coordinates = List.of(
+                new Coordinate(0, 0),
+                new Coordinate(0.001, 1),
+                new Coordinate(-0.001, 2),
+                new Coordinate(0, 3),
+                new Coordinate(1, 4),
+                new Coordinate(0, 5));
+
+        // the small deviations are removed, the peak is kept
+        assertEquals(List.of(new Coordinate(0, 0), new Coordinate(0, 3), new Coordinate(1, 4), new Coordinate(0, 5)), LineSimplifier.simplify(coordinates, 0.01));
+        assertEquals(List.of(new Coordinate(0, 0), new Coordinate(0, 5)), LineSimplifier.simplify(coordinates, 2));
+        assertSame(coordinates, LineSimplifier.simplify(coordinates, 0.0001));
+
+        List<Coordinate> twoCoordinates = List.of(new Coordinate(0, 0), new Coordinate(1, 1));
+        assertSame(twoCoordinates, LineSimplifier.simplify(twoCoordinates, 10));
+    }
+
+    @Test
+    public void testSimplifyLine() {
+        List<Coordinate> coordinates = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            coordinates.add(new Coordinate(45 + i * 0.01, 2 + (i % 2) * 0.0001));
+        }
+        LineGeoData line = new LineGeoData("L1", Country.FR, Country.FR, "P1", "P2", coordinates);
+
+        LineGeoData simplified = LineSimplifier.simplify(line, 5);
+        assertEquals("L1", simplified.getId());
+        assertEquals("P2", simplified.getSubstationEnd());
+        assertEquals(List.of(coordinates.get(0), coordinates.get(100)), simplified.getCoordinates());
+
+        // zigzags of 0.0001 degree are kept at the most detailed level
+        assertSame(line, LineSimplifier.simplify(line, LineSimplifier.MAX_ZOOM));
+    }
+
+    @Test
+    public void testZoom() {
+        assertEquals(360d / 256, LineSimplifier.getTolerance(0), 0);
+        assertEquals(0, LineSimplifier.getZoom(10));
+        assertEquals(8, LineSimplifier.getZoom(LineSimplifier.getTolerance(8)));
+        assertEquals(9, LineSimplifier.getZoom(LineSimplifier.getTolerance(8) * 0.9));
+        assertEquals(LineSimplifier.MAX_ZOOM, LineSimplifier.getZoom(1e-12));
+        assertThrows(IllegalArgumentException.class, () -> LineSimplifier.getZoom(0));
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.powsybl.iidm.network.*;
+import com.powsybl.iidm.network.impl.NetworkFactoryImpl;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author agent <agent at local>
+ */
+public class SubstationGraphTest {
+
+    private static List<String> getNeighbours(SubstationGraph graph, String substationId) {
+        int i = graph.getIndex(substationId);
+        List<String> neighbours = new ArrayList<>();
+        for (int k = graph.getNeighbourStart(i); k < graph.getNeighbourEnd(i); k++) {
+            neighbours.add(graph.getSubstation(graph.getNeighbour(k)).getId());
+        }
+        return neighbours;
+    }
+
+    @Test
+    public void test() {
+        Network network = EurostagTutorialExample1Factory.create(new NetworkFactoryImpl());
+        Substation p3 = network.newSubstation()
+                .setId("P3")
+                .setCountry(Country.BE)
+                .add();
+        VoltageLevel vlhv3 = p3.newVoltageLevel()
+                .setId("VLHV3")
+                .setNominalV(380)
+                .setTopologyKind(TopologyKind.BUS_BREAKER)
+                .add();
+        vlhv3.getBusBreakerView().newBus()
+                .setId("NHV3")
+                .add();
+        network.newLine()
+                .setId("NHV2_NHV3")
+                .setVoltageLevel1("VLHV2")
+                .setBus1("NHV2")
+                .setVoltageLevel2("VLHV3")
+                .setBus2("NHV3")
+                .setR(3.0)
+                .setX(33.0)
+                .setG1(0.0)
+                .setB1(386E-6 / 2)
+                .setG2(0.0)
+                .setB2(386E-6 / 2)
+                .add();
+
+        // the two parallel lines between P1 and P2 give a single neighbour, transformers inside a substation none
+        SubstationGraph graph = SubstationGraph.build(network.getSubstationStream().collect(Collectors.toList()));
+        assertEquals(3, graph.size());
+        assertEquals(List.of("P2"), getNeighbours(graph, "P1"));
+        assertEquals(List.of("P1", "P3"), getNeighbours(graph, "P2"));
+        assertEquals(List.of("P2"), getNeighbours(graph, "P3"));
+        assertEquals(4, graph.getEdgeCount());
+        assertEquals(-1, graph.getIndex("P4"));
+
+        // only the branches between the given substations are kept
+        graph = SubstationGraph.build(List.of(network.getSubstation("P2"), network.getSubstation("P3")));
+        assertEquals(List.of("P3"), getNeighbours(graph, "P2"));
+        assertEquals(List.of("P2"), getNeighbours(graph, "P3"));
+        assertEquals(2, graph.getEdgeCount());
+    }
+}
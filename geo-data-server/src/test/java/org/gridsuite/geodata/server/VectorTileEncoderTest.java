@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server;
+
+import com.powsybl.iidm.network.Country;
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.dto.LineGeoData;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class VectorTileEncoderTest {
+
+    /**
+     * Decoded feature: its properties and its geometry commands.
+     */
+    private static final class Feature {
+        private int type;
+        private final List<Integer> tags = new ArrayList<>();
+        private final List<Integer> geometry = new ArrayList<>();
+    }
+
+    /**
+     * Decoded layer: its features, with their properties resolved.
+     */
+    private static final class Layer {
+        private String name;
+        private int extent;
+        private int version;
+        private final List<Feature> features = new ArrayList<>();
+        private final List<String> keys = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+
+        Map<String, String> properties(Feature feature) {
+            Map<String, String> properties = new HashMap<>();
+            for (int i = 0; i < feature.tags.size(); i += 2) {
+                properties.put(keys.get(feature.tags.get(i)), values.get(feature.tags.get(i + 1)));
+            }
+            return properties;
+        }
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static ByteBuffer readMessage(ByteBuffer buffer) {
+        int length = (int) readVarint(buffer);
+        ByteBuffer message = buffer.slice();
+        message.limit(length);
+        buffer.position(buffer.position() + length);
+        return message;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        ByteBuffer message = readMessage(buffer);
+        byte[] bytes = new byte[message.remaining()];
+        message.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<Integer> readPacked(ByteBuffer buffer) {
+        ByteBuffer message = readMessage(buffer);
+        List<Integer> values = new ArrayList<>();
+        while (message.hasRemaining()) {
+            values.add((int) readVarint(message));
+        }
+        return values;
+    }
+
+    private static Feature readFeature(ByteBuffer buffer) {
+        Feature feature = new Feature();
+        while (buffer.hasRemaining()) {
+            int field = (int) readVarint(buffer) >> 3;
+            switch (field) {
+                case 1: readVarint(buffer); break;
+                case 2: feature.tags.addAll(readPacked(buffer)); break;
+                case 3: feature.type = (int) readVarint(buffer); break;
+                case 4: feature.geometry.addAll(readPacked(buffer)); break;
+                default: fail("Unexpected feature field " + field);
+            }
+        }
+        return feature;
+    }
+
+    private static Layer readLayer(ByteBuffer buffer) {
+        Layer layer = new Layer();
+        while (buffer.hasRemaining()) {
+            int field = (int) readVarint(buffer) >> 3;
+            switch (field) {
+                case 1: layer.name = readString(buffer); break;
+                case 2: layer.features.add(readFeature(readMessage(buffer))); break;
+                case 3: layer.keys.add(readString(buffer)); break;
+                case 4: layer.values.add(readString(readMessage(buffer).position(1))); break;
+                case 5: layer.extent = (int) readVarint(buffer); break;
+                case 15: layer.version = (int) readVarint(buffer); break;
+                default: fail("Unexpected layer field " + field);
+            }
+        }
+        return layer;
+    }
+
+    private static Map<String, Layer> readTile(byte[] tile) {
+        ByteBuffer buffer = ByteBuffer.wrap(tile);
+        Map<String, Layer> layers = new HashMap<>();
+        while (buffer.hasRemaining()) {
+            assertEquals(3, readVarint(buffer) >> 3);
+            Layer layer = readLayer(readMessage(buffer));
+            layers.put(layer.name, layer);
+        }
+        return layers;
+    }
+
+    private static int zigzag(int n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    @Test
+    public void testBoundingBox() {
+        BoundingBox world = VectorTileEncoder.getBoundingBox(0, 0, 0);
+        assertEquals(-180, world.getMinLon(), 0);
+        assertEquals(180, world.getMaxLon(), 0);
+        assertTrue(world.getMaxLat() > 85);
+
+        // the tile 1/1/0 is the north east quarter, with its buffer
+        BoundingBox northEast = VectorTileEncoder.getBoundingBox(1, 1, 0);
+        assertEquals(-180d * 64 / 4096, northEast.getMinLon(), 1e-9);
+        assertTrue(northEast.getMinLat() < 0);
+        assertTrue(northEast.getMinLat() > -5);
+
+        assertFalse(VectorTileEncoder.isValid(1, 2, 0));
+        assertFalse(VectorTileEncoder.isValid(-1, 0, 0));
+        assertTrue(VectorTileEncoder.isValid(3, 7, 7));
+    }
+
+    @Test
+    public void testEncode() {
+        VectorTileEncoder encoder = new VectorTileEncoder(1, 1, 0);
+        encoder.addSubstation(new SubstationGeoData("P1", Country.FR, new Coordinate(0, 90)));
+        encoder.addSubstation(new SubstationGeoData("P2", Country.FR, new Coordinate(0, -90)));
+        encoder.addLine(new LineGeoData("L1", Country.FR, Country.BE, "P1", "P2",
+                List.of(new Coordinate(0, -90), new Coordinate(0, 45), new Coordinate(0, 90))));
+        Map<String, Layer> layers = readTile(encoder.encode());
+
+        Layer substations = layers.get(VectorTileEncoder.SUBSTATIONS_LAYER);
+        assertEquals(2, substations.version);
+        assertEquals(4096, substations.extent);
+        assertEquals(1, substations.features.size());
+        Feature p1 = substations.features.get(0);
+        assertEquals(1, p1.type);
+        assertEquals(Map.of("id", "P1", "country", "FR"), substations.properties(p1));
+        // move to the middle of the bottom border of the tile, at the equator
+        assertEquals(List.of(1 | (1 << 3)), p1.geometry.subList(0, 1));
+        assertEquals(2048, zigzag(p1.geometry.get(1)));
+        assertEquals(4096, zigzag(p1.geometry.get(2)));
+
+        // the line is clipped at the left of the tile buffer
+        Layer lines = layers.get(VectorTileEncoder.LINES_LAYER);
+        Feature l1 = lines.features.get(0);
+        assertEquals(2, l1.type);
+        assertEquals(Map.of("id", "L1", "country1", "FR", "country2", "BE"), lines.properties(l1));
+        assertEquals(List.of(1 | (1 << 3)), l1.geometry.subList(0, 1));
+        assertEquals(-64, zigzag(l1.geometry.get(1)));
+        assertEquals(4096, zigzag(l1.geometry.get(2)));
+        assertEquals(2 | (2 << 3), (int) l1.geometry.get(3));
+        assertEquals(1024 + 64, zigzag(l1.geometry.get(4)));
+        assertEquals(0, zigzag(l1.geometry.get(5)));
+        assertEquals(2048 - 1024, zigzag(l1.geometry.get(6)));
+
+        VectorTileEncoder empty = new VectorTileEncoder(5, 0, 0);
+        empty.addSubstation(new SubstationGeoData("P1", Country.FR, new Coordinate(45, 2)));
+        assertEquals(0, empty.encode().length);
+    }
+}
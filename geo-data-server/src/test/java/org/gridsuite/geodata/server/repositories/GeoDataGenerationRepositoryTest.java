@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server.repositories;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import org.gridsuite.geodata.server.AbstractEmbeddedCassandraSetup;
+import org.gridsuite.geodata.server.GeoDataApplication;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.ContextHierarchy;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.UUID;
+
+import static org.gridsuite.geodata.server.repositories.GeoDataGenerationRepository.GEO_DATA;
+import static org.gridsuite.geodata.server.repositories.GeoDataGenerationRepository.INITIAL_GENERATION;
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+@RunWith(SpringRunner.class)
+@ContextHierarchy({
+        @ContextConfiguration(classes = {GeoDataApplication.class})
+    })
+public class GeoDataGenerationRepositoryTest extends AbstractEmbeddedCassandraSetup {
+
+    @Autowired
+    private GeoDataGenerationRepository repository;
+
+    @Autowired
+    private CqlSession session;
+
+    @Test
+    public void test() {
+        assertEquals(INITIAL_GENERATION, repository.getGeneration(GEO_DATA));
+
+        UUID generation = repository.newGeneration(GEO_DATA);
+        assertNotEquals(INITIAL_GENERATION, generation);
+        assertEquals(generation, repository.getGeneration(GEO_DATA));
+
+        UUID newGeneration = repository.newGeneration(GEO_DATA);
+        assertNotEquals(generation, newGeneration);
+        assertEquals(newGeneration, repository.getGeneration(GEO_DATA));
+
+        // each name has its own generation
+        assertEquals(INITIAL_GENERATION, repository.getGeneration("other"));
+    }
+
+    @Test
+    public void testCreateTable() {
+        assertFalse(repository.createTable());
+
+        session.execute("drop table geo_data_generations");
+        assertTrue(repository.createTable());
+        assertFalse(repository.createTable());
+
+        UUID generation = repository.newGeneration(GEO_DATA);
+        assertEquals(generation, repository.getGeneration(GEO_DATA));
+    }
+}
@@ -6,21 +6,25 @@
  */
 package org.gridsuite.geodata.server.repositories;
 
+import com.powsybl.iidm.network.Country;
+import org.gridsuite.geodata.extensions.Coordinate;
 import org.gridsuite.geodata.server.AbstractEmbeddedCassandraSetup;
 import org.gridsuite.geodata.server.GeoDataApplication;
 import org.gridsuite.geodata.server.dto.LineGeoData;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import com.datastax.oss.driver.api.core.CqlSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.ContextHierarchy;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.util.ArrayList;
-
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 /**
  * @author Chamseddine Benhamed <chamseddine.benhamed at rte-france.com>
@@ -37,6 +41,9 @@ public class LineCustomRepositoryTest extends AbstractEmbeddedCassandraSetup {
     @Autowired
     private LineRepository lineRepository;
 
+    @Autowired
+    private CqlSession session;
+
     @Test
     public void test() {
         lineRepository.save(LineEntity.builder()
@@ -79,4 +86,192 @@ public class LineCustomRepositoryTest extends AbstractEmbeddedCassandraSetup {
         assertEquals("subBE", new ArrayList<>(lines.values()).get(2).getSubstationStart());
         assertEquals("subFR", new ArrayList<>(lines.values()).get(2).getSubstationEnd());
     }
+
+    @Test
+    public void testByCountries() {
+        LineGeoData frBe = LineGeoData.builder()
+                .id("lineFRBE")
+                .country1(Country.FR)
+                .country2(Country.BE)
+                .substationStart("subFR")
+                .substationEnd("subBE")
+                .coordinates(List.of(new Coordinate(1, 2), new Coordinate(3, 4)))
+                .build();
+        lineRepository.save(LineEntity.create(frBe, true));
+        lineRepository.save(LineEntity.create(frBe, false));
+
+        LineGeoData frFr = LineGeoData.builder()
+                .id("lineFRFR")
+                .country1(Country.FR)
+                .country2(Country.FR)
+                .substationStart("subFR")
+                .substationEnd("subFR2")
+                .coordinates(List.of())
+                .build();
+        lineRepository.save(LineEntity.create(frFr, true));
+
+        LineGeoData deDe = LineGeoData.builder()
+                .id("lineDEDE")
+                .country1(Country.DE)
+                .country2(Country.DE)
+                .substationStart("subDE")
+                .substationEnd("subDE2")
+                .coordinates(List.of())
+                .build();
+        lineRepository.save(LineEntity.create(deDe, true));
+
+        Map<String, LineGeoData> lines = lineCustomRepository.getLines(EnumSet.of(Country.FR, Country.BE));
+        assertEquals(2, lines.size());
+        assertEquals(Country.FR, lines.get("lineFRBE").getCountry1());
+        assertEquals(Country.BE, lines.get("lineFRBE").getCountry2());
+        assertEquals(List.of(new Coordinate(1, 2), new Coordinate(3, 4)), lines.get("lineFRBE").getCoordinates());
+        assertTrue(lines.containsKey("lineFRFR"));
+
+        lines = lineCustomRepository.getLines(EnumSet.of(Country.BE));
+        assertEquals(1, lines.size());
+        assertEquals(Country.FR, lines.get("lineFRBE").getCountry1());
+        assertEquals("subFR", lines.get("lineFRBE").getSubstationStart());
+
+        assertEquals(1, lineCustomRepository.getLinesAsync(Country.DE).join().size());
+        assertTrue(lineCustomRepository.getLines(EnumSet.of(Country.IT)).isEmpty());
+        assertEquals(3, lineCustomRepository.getLines().size());
+    }
+
+    @Test
+    public void testSave() {
+        List<Coordinate> coordinates = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            coordinates.add(new Coordinate(i, i + 1));
+        }
+        List<LineEntity> lines = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            lines.add(LineEntity.create(LineGeoData.builder()
+                    .id("lineFR" + i)
+                    .country1(Country.FR)
+                    .country2(Country.FR)
+                    .substationStart("subFR" + i)
+                    .coordinates(coordinates)
+                    .build(), true));
+        }
+        lines.add(LineEntity.create(LineGeoData.builder()
+                .id("lineBE")
+                .country1(Country.BE)
+                .country2(Country.BE)
+                .coordinates(List.of())
+                .build(), true));
+
+        // two lines of 11 coordinates per batch
+        BulkWriteResult result = lineCustomRepository.saveLines(lines, 25, 2);
+        assertEquals(6, result.getRows());
+        assertEquals(4, result.getBatches());
+        assertFalse(result.hasFailures());
+
+        Map<String, LineGeoData> saved = lineCustomRepository.getLines(EnumSet.of(Country.FR, Country.BE));
+        assertEquals(6, saved.size());
+        assertEquals(coordinates, saved.get("lineFR3").getCoordinates());
+        assertEquals("subFR3", saved.get("lineFR3").getSubstationStart());
+        assertNull(saved.get("lineFR3").getSubstationEnd());
+        assertTrue(saved.get("lineBE").getCoordinates().isEmpty());
+    }
+
+    @Test
+    public void testPackLegacyCoordinates() {
+        lineRepository.save(LineEntity.builder()
+                .id("legacy")
+                .country("FR")
+                .otherCountry("FR")
+                .side1(true)
+                .coordinates(List.of(new CoordinateEntity(1, 2), new CoordinateEntity(3, 4.5)))
+                .build());
+        lineCustomRepository.saveLines(List.of(LineEntity.create(LineGeoData.builder()
+                .id("packed")
+                .country1(Country.FR)
+                .country2(Country.FR)
+                .coordinates(List.of(new Coordinate(5, 6)))
+                .build(), true)), 10, 1);
+
+        // the legacy coordinates are read until they are migrated
+        assertEquals(List.of(new Coordinate(1, 2), new Coordinate(3, 4.5)), lineCustomRepository.getLines().get("legacy").getCoordinates());
+
+        assertFalse(lineCustomRepository.addPackedCoordinatesColumn());
+        BulkWriteResult result = lineCustomRepository.packLegacyCoordinates(10, 1);
+        assertEquals(1, result.getRows());
+        assertFalse(result.hasFailures());
+        assertTrue(lineRepository.findByCountry("FR").stream().filter(l -> l.getId().equals("legacy"))
+                .allMatch(l -> l.getCoordinates() == null && PackedCoordinates.getCount(l.getPackedCoordinates()) == 2));
+
+        Map<String, LineGeoData> lines = lineCustomRepository.getLines();
+        assertEquals(List.of(new Coordinate(1, 2), new Coordinate(3, 4.5)), lines.get("legacy").getCoordinates());
+        assertEquals(List.of(new Coordinate(5, 6)), lines.get("packed").getCoordinates());
+
+        // nothing left to migrate
+        assertEquals(0, lineCustomRepository.packLegacyCoordinates(10, 1).getRows());
+    }
+
+    private LineEntity createPackedLine(String id, List<Coordinate> coordinates) {
+        return LineEntity.create(LineGeoData.builder()
+                .id(id)
+                .country1(Country.FR)
+                .country2(Country.FR)
+                .coordinates(coordinates)
+                .build(), true);
+    }
+
+    @Test
+    public void testSaveRemovesLegacyCoordinates() {
+        lineRepository.save(LineEntity.builder()
+                .id("line")
+                .country("FR")
+                .otherCountry("FR")
+                .side1(true)
+                .coordinates(List.of(new CoordinateEntity(1, 2), new CoordinateEntity(3, 4)))
+                .build());
+
+        lineCustomRepository.saveLines(List.of(createPackedLine("line", List.of(new Coordinate(5, 6)))), 10, 1);
+        assertTrue(lineRepository.findByCountry("FR").stream().allMatch(l -> l.getCoordinates() == null));
+        assertEquals(List.of(new Coordinate(5, 6)), lineCustomRepository.getLines().get("line").getCoordinates());
+    }
+
+    @Test
+    public void testPackRewrittenCoordinates() {
+        lineCustomRepository.saveLines(List.of(createPackedLine("line", List.of(new Coordinate(5, 6)))), 10, 1);
+
+        // line rewritten by an instance older than the packed coordinates column
+        session.execute("update lines set coordinates = [{lat: 1, lon: 2}, {lat: 3, lon: 4}] where country = 'FR' and id = 'line'");
+        assertEquals(List.of(new Coordinate(1, 2), new Coordinate(3, 4)), lineCustomRepository.getLines().get("line").getCoordinates());
+        assertEquals(List.of(new Coordinate(1, 2), new Coordinate(3, 4)), lineCustomRepository.getLines(EnumSet.of(Country.FR)).get("line").getCoordinates());
+
+        assertEquals(1, lineCustomRepository.packLegacyCoordinates(10, 1).getRows());
+        assertTrue(lineRepository.findByCountry("FR").stream()
+                .allMatch(l -> l.getCoordinates() == null && PackedCoordinates.getCount(l.getPackedCoordinates()) == 2));
+        assertEquals(List.of(new Coordinate(1, 2), new Coordinate(3, 4)), lineCustomRepository.getLines().get("line").getCoordinates());
+        assertEquals(0, lineCustomRepository.packLegacyCoordinates(10, 1).getRows());
+    }
+
+    @Test
+    public void testWithoutPackedCoordinatesColumn() {
+        // lines table created before the packed coordinates column
+        session.execute("alter table lines drop packedCoordinates");
+        try {
+            session.execute("insert into lines (country, id, side1, otherCountry, coordinates) values ('FR', 'legacy', true, 'BE', [{lat: 1, lon: 2}, {lat: 3, lon: 4}])");
+
+            LineGeoData legacy = lineCustomRepository.getLines().get("legacy");
+            assertEquals(Country.FR, legacy.getCountry1());
+            assertEquals(Country.BE, legacy.getCountry2());
+            assertEquals(List.of(new Coordinate(1, 2), new Coordinate(3, 4)), legacy.getCoordinates());
+        } finally {
+            assertTrue(lineCustomRepository.addPackedCoordinatesColumn());
+        }
+
+        // the column is there for the new lines, the legacy line being still read
+        lineCustomRepository.saveLines(List.of(LineEntity.create(LineGeoData.builder()
+                .id("packed")
+                .country1(Country.FR)
+                .country2(Country.FR)
+                .coordinates(List.of(new Coordinate(5, 6)))
+                .build(), true)), 10, 1);
+        Map<String, LineGeoData> lines = lineCustomRepository.getLines();
+        assertEquals(List.of(new Coordinate(1, 2), new Coordinate(3, 4)), lines.get("legacy").getCoordinates());
+        assertEquals(List.of(new Coordinate(5, 6)), lines.get("packed").getCoordinates());
+    }
 }
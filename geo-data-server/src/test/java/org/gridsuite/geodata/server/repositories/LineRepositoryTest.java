@@ -44,7 +44,7 @@ public class LineRepositoryTest extends AbstractEmbeddedCassandraSetup {
                 .substationEnd("way")
                 .coordinates(coordinateEntities);
 
-        assertEquals("LineEntity.LineEntityBuilder(country=FR, id=lineID, side1=false, otherCountry=BE, substationStart$value=sub, substationEnd$value=way, coordinates=[CoordinateEntity(lat=11.0, lon=12.0), CoordinateEntity(lat=13.0, lon=14.1)])", lineEntityBuilder.toString());
+        assertEquals("LineEntity.LineEntityBuilder(country=FR, id=lineID, side1=false, otherCountry=BE, substationStart$value=sub, substationEnd$value=way, coordinates=[CoordinateEntity(lat=11.0, lon=12.0), CoordinateEntity(lat=13.0, lon=14.1)], packedCoordinates=null)", lineEntityBuilder.toString());
 
         repository.save(lineEntityBuilder.build());
         List<LineEntity> lines = repository.findAll();
@@ -64,6 +64,8 @@ public class LineRepositoryTest extends AbstractEmbeddedCassandraSetup {
         assertEquals("Samy", le.getSubstationStart());
         assertEquals("Scooby", le.getSubstationEnd());
         assertTrue(le.isSide1());
+        assertNull(le.getCoordinates());
+        assertEquals(0, PackedCoordinates.getCount(le.getPackedCoordinates()));
 
     }
 }
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server.repositories;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.uuid.Uuids;
+import org.gridsuite.geodata.server.AbstractEmbeddedCassandraSetup;
+import org.gridsuite.geodata.server.GeoDataApplication;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.ContextHierarchy;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.gridsuite.geodata.server.repositories.NetworkSnapshotRepository.LINES;
+import static org.gridsuite.geodata.server.repositories.NetworkSnapshotRepository.SUBSTATIONS;
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+@RunWith(SpringRunner.class)
+@ContextHierarchy({
+        @ContextConfiguration(classes = {GeoDataApplication.class})
+    })
+public class NetworkSnapshotRepositoryTest extends AbstractEmbeddedCassandraSetup {
+
+    private static final UUID NETWORK_UUID = UUID.fromString("7928181c-7977-4592-ba19-88027e4254e4");
+
+    @Autowired
+    private NetworkSnapshotRepository repository;
+
+    @Autowired
+    private CqlSession session;
+
+    private int getTimeToLive(String resource, int chunk) {
+        return session.execute(SimpleStatement.newInstance("select ttl(snapshotId) from network_snapshots where networkUuid = ? and countries = ? and resource = ? and chunk = ?",
+                NETWORK_UUID, "FR", resource, chunk)).one().getInt(0);
+    }
+
+    private static List<ByteBuffer> chunks(int... bytes) {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        for (int b : bytes) {
+            chunks.add(ByteBuffer.wrap(new byte[] {(byte) b, (byte) b}));
+        }
+        return chunks;
+    }
+
+    @Test
+    public void test() {
+        UUID generation = Uuids.timeBased();
+        assertNull(repository.get(SUBSTATIONS, NETWORK_UUID, "FR", generation));
+
+        repository.save(SUBSTATIONS, NETWORK_UUID, "FR", generation, chunks(1, 2, 3), 3600);
+        assertEquals(chunks(1, 2, 3), repository.get(SUBSTATIONS, NETWORK_UUID, "FR", generation));
+        assertNull(repository.get(LINES, NETWORK_UUID, "FR", generation));
+        assertNull(repository.get(SUBSTATIONS, NETWORK_UUID, "BE,FR", generation));
+        int timeToLive = getTimeToLive(SUBSTATIONS, -1);
+        assertTrue(timeToLive > 3500 && timeToLive <= 3600);
+        timeToLive = getTimeToLive(SUBSTATIONS, 2);
+        assertTrue(timeToLive > 3500 && timeToLive <= 3600);
+
+        // a new generation makes the snapshots obsolete
+        UUID newGeneration = Uuids.timeBased();
+        assertNull(repository.get(SUBSTATIONS, NETWORK_UUID, "FR", newGeneration));
+
+        // each resource has its own generation
+        repository.save(LINES, NETWORK_UUID, "FR", newGeneration, chunks(4), 60);
+        assertEquals(chunks(4), repository.get(LINES, NETWORK_UUID, "FR", newGeneration));
+        assertNull(repository.get(SUBSTATIONS, NETWORK_UUID, "FR", newGeneration));
+        assertTrue(getTimeToLive(LINES, -1) <= 60);
+
+        // the chunks of a previous larger snapshot are ignored
+        repository.save(SUBSTATIONS, NETWORK_UUID, "FR", newGeneration, chunks(5), 60);
+        assertEquals(chunks(5), repository.get(SUBSTATIONS, NETWORK_UUID, "FR", newGeneration));
+
+        // an empty snapshot has no chunk
+        repository.save(SUBSTATIONS, NETWORK_UUID, "BE", newGeneration, List.of(), 60);
+        assertEquals(List.of(), repository.get(SUBSTATIONS, NETWORK_UUID, "BE", newGeneration));
+
+        repository.delete(NETWORK_UUID);
+        assertNull(repository.get(LINES, NETWORK_UUID, "FR", newGeneration));
+
+        assertThrows(IllegalArgumentException.class, () -> repository.get("generators", NETWORK_UUID, "FR", newGeneration));
+    }
+
+    @Test
+    public void testIncompleteSnapshot() {
+        UUID generation = Uuids.timeBased();
+        repository.save(SUBSTATIONS, NETWORK_UUID, "FR", generation, chunks(1, 2), 60);
+
+        // chunk of a snapshot being written by another instance
+        session.execute(SimpleStatement.newInstance("insert into network_snapshots (networkUuid, countries, resource, chunk, snapshotId, data) values (?, ?, ?, ?, ?, ?)",
+                NETWORK_UUID, "FR", SUBSTATIONS, 1, UUID.randomUUID(), ByteBuffer.wrap(new byte[] {3})));
+        assertNull(repository.get(SUBSTATIONS, NETWORK_UUID, "FR", generation));
+
+        // missing chunk
+        repository.save(SUBSTATIONS, NETWORK_UUID, "FR", generation, chunks(1, 2), 60);
+        session.execute(SimpleStatement.newInstance("delete from network_snapshots where networkUuid = ? and countries = ? and resource = ? and chunk = ?",
+                NETWORK_UUID, "FR", SUBSTATIONS, 0));
+        assertNull(repository.get(SUBSTATIONS, NETWORK_UUID, "FR", generation));
+
+        // missing header
+        repository.save(SUBSTATIONS, NETWORK_UUID, "FR", generation, chunks(1, 2), 60);
+        session.execute(SimpleStatement.newInstance("delete from network_snapshots where networkUuid = ? and countries = ? and resource = ? and chunk = ?",
+                NETWORK_UUID, "FR", SUBSTATIONS, -1));
+        assertNull(repository.get(SUBSTATIONS, NETWORK_UUID, "FR", generation));
+    }
+
+    @Test
+    public void testCreateTable() {
+        assertFalse(repository.createTable());
+
+        session.execute("drop table network_snapshots");
+        assertTrue(repository.createTable());
+        assertFalse(repository.createTable());
+
+        UUID generation = Uuids.timeBased();
+        repository.save(SUBSTATIONS, NETWORK_UUID, "FR", generation, chunks(1), 60);
+        assertEquals(chunks(1), repository.get(SUBSTATIONS, NETWORK_UUID, "FR", generation));
+    }
+}
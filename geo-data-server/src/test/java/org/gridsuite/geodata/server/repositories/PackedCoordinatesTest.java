@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server.repositories;
+
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class PackedCoordinatesTest {
+
+    @Test
+    public void test() {
+        List<Coordinate> coordinates = List.of(
+                new Coordinate(51.3803482, 0.5492960),
+                new Coordinate(51.5292587, -0.5132722),
+                new Coordinate(-33.9, 151.2),
+                new Coordinate(0, 0));
+        ByteBuffer packed = PackedCoordinates.encode(coordinates);
+        assertEquals(4, PackedCoordinates.getCount(packed));
+        assertEquals(coordinates, PackedCoordinates.decode(packed));
+        assertThrows(UnsupportedOperationException.class, () -> PackedCoordinates.decode(packed).add(new Coordinate(1, 2)));
+        assertArrayEquals(new double[] {51.3803482, 0.5492960, 51.5292587, -0.5132722, -33.9, 151.2, 0, 0},
+                PackedCoordinates.decodeToArray(packed), 0);
+
+        // 1e-7 degree precision
+        Coordinate precise = PackedCoordinates.decode(PackedCoordinates.encode(List.of(new Coordinate(45.123456789, 2.987654321)))).get(0);
+        assertEquals(45.1234568, precise.getLat(), 0);
+        assertEquals(2.9876543, precise.getLon(), 0);
+
+        assertTrue(PackedCoordinates.decode(PackedCoordinates.encode(List.of())).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> PackedCoordinates.decode(ByteBuffer.wrap(new byte[] {2, 0})));
+    }
+
+    @Test
+    public void testSize() {
+        List<Coordinate> coordinates = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            coordinates.add(new Coordinate(45 + i * 0.001, 2 + i * 0.0005));
+        }
+        // close coordinates take a few bytes each
+        assertTrue(PackedCoordinates.encode(coordinates).remaining() < 1000 * 6);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.gridsuite.geodata.server.repositories;
+
+import com.powsybl.iidm.network.Country;
+import org.gridsuite.geodata.extensions.Coordinate;
+import org.gridsuite.geodata.server.AbstractEmbeddedCassandraSetup;
+import org.gridsuite.geodata.server.GeoDataApplication;
+import org.gridsuite.geodata.server.dto.SubstationGeoData;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.ContextHierarchy;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+@RunWith(SpringRunner.class)
+@ContextHierarchy({
+    @ContextConfiguration(classes = {GeoDataApplication.class})
+    })
+public class SubstationCustomRepositoryTest extends AbstractEmbeddedCassandraSetup {
+
+    @Autowired
+    private SubstationCustomRepository substationCustomRepository;
+
+    @Autowired
+    private SubstationRepository substationRepository;
+
+    @Test
+    public void test() {
+        substationRepository.save(SubstationEntity.builder()
+                .country("FR")
+                .id("subFR1")
+                .coordinate(CoordinateEntity.builder().lat(1).lon(2).build())
+                .build());
+
+        substationRepository.save(SubstationEntity.builder()
+                .country("FR")
+                .id("subFR2")
+                .coordinate(CoordinateEntity.builder().lat(3).lon(4).build())
+                .build());
+
+        substationRepository.save(SubstationEntity.builder()
+                .country("BE")
+                .id("subBE")
+                .coordinate(CoordinateEntity.builder().lat(5).lon(6).build())
+                .build());
+
+        substationRepository.save(SubstationEntity.builder()
+                .country("DE")
+                .id("subDE")
+                .coordinate(CoordinateEntity.builder().lat(7).lon(8).build())
+                .build());
+
+        Map<String, SubstationGeoData> substations = substationCustomRepository.getSubstations(EnumSet.of(Country.FR, Country.BE));
+        assertEquals(3, substations.size());
+        assertEquals(Country.FR, substations.get("subFR2").getCountry());
+        assertEquals(3, substations.get("subFR2").getCoordinate().getLat(), 0);
+        assertEquals(4, substations.get("subFR2").getCoordinate().getLon(), 0);
+        assertEquals(Country.BE, substations.get("subBE").getCountry());
+
+        assertEquals(1, substationCustomRepository.getSubstationsAsync(Country.DE).join().size());
+        assertTrue(substationCustomRepository.getSubstations(EnumSet.of(Country.IT)).isEmpty());
+        assertTrue(substationCustomRepository.getSubstations(Collections.emptySet()).isEmpty());
+
+        assertEquals(4, substationCustomRepository.getSubstations().size());
+    }
+
+    @Test
+    public void testSave() {
+        List<SubstationEntity> substations = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            substations.add(SubstationEntity.create(new SubstationGeoData("subFR" + i, Country.FR, new Coordinate(i, i + 1))));
+        }
+        substations.add(SubstationEntity.create(new SubstationGeoData("subBE", Country.BE, new Coordinate(5, 6))));
+
+        BulkWriteResult result = substationCustomRepository.saveSubstations(substations, 2, 2);
+        assertEquals(6, result.getRows());
+        assertEquals(4, result.getBatches());
+        assertFalse(result.hasFailures());
+
+        Map<String, SubstationGeoData> saved = substationCustomRepository.getSubstations(EnumSet.of(Country.FR, Country.BE));
+        assertEquals(6, saved.size());
+        assertEquals(4, saved.get("subFR4").getCoordinate().getLat(), 0);
+        assertEquals(Country.BE, saved.get("subBE").getCountry());
+    }
+}